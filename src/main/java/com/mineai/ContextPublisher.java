@@ -0,0 +1,199 @@
+package com.mineai;
+
+import com.google.gson.Gson;
+import com.mineai.model.ContextDelta;
+import com.mineai.model.ContextSnapshot;
+import com.mineai.model.GameEvent;
+import com.mineai.model.PlayerContext;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.potion.PotionEffect;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Publishes what is happening on the server (online players, rank, health, world, coarse
+ * position, effects, recent deaths) to the context/ directory so the AI doesn't act blind.
+ *
+ * Every {@code context.interval-ticks} the main thread copies player state into immutable
+ * records; diffing and JSON writing happen on a single background writer. Each capture is
+ * either a full snapshot.json (every {@code context.full-every} captures) or a small
+ * delta-&lt;seq&gt;.json holding only what changed. A new snapshot replaces the deltas
+ * before it, so a reader needs snapshot.json plus at most full-every deltas.
+ */
+public final class ContextPublisher {
+
+    private static final Gson GSON = new Gson();
+    /** Deaths kept in each full snapshot. */
+    private static final int RECENT_DEATHS = 10;
+
+    private final MineAI plugin;
+    private final Logger logger;
+    private final Path contextDir;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "MineAI-Context");
+        t.setDaemon(true);
+        return t;
+    });
+    private final List<GameEvent> pendingDeaths = new ArrayList<>();
+    private BukkitTask captureTask;
+    private int capturesSinceFull;
+    private volatile boolean forceFull;
+
+    // Writer-thread state
+    private long seq;
+    private Map<String, PlayerContext> published = new HashMap<>();
+    private final ArrayDeque<GameEvent> recentDeaths = new ArrayDeque<>();
+
+    public ContextPublisher(MineAI plugin) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.contextDir = plugin.getDataFolder().toPath().resolve("context");
+        try {
+            Files.createDirectories(contextDir);
+        } catch (IOException e) {
+            logger.severe("Failed to create context directory: " + e.getMessage());
+        }
+    }
+
+    public void start() {
+        if (captureTask != null) return;
+        long interval = Math.max(10, plugin.getConfig().getLong("context.interval-ticks", 40));
+        forceFull = true; // readers start from a full snapshot
+        captureTask = Bukkit.getScheduler().runTaskTimer(plugin, this::capture, interval, interval);
+    }
+
+    public void stop() {
+        if (captureTask != null) {
+            captureTask.cancel();
+            captureTask = null;
+        }
+        writer.shutdown();
+        try {
+            writer.awaitTermination(3, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Note a death for the next capture. MUST be called on the main thread.
+     */
+    public void recordDeath(String playerName, String message) {
+        pendingDeaths.add(new GameEvent("death", playerName, message, System.currentTimeMillis() / 1000L));
+    }
+
+    /**
+     * Main thread: copy the state of every online player, then hand off to the writer.
+     */
+    private void capture() {
+        List<PlayerContext> players = new ArrayList<>();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            players.add(describe(player));
+        }
+        List<GameEvent> deaths = List.copyOf(pendingDeaths);
+        pendingDeaths.clear();
+
+        boolean full = forceFull
+                || ++capturesSinceFull >= Math.max(1, plugin.getConfig().getInt("context.full-every", 30));
+        if (full) {
+            capturesSinceFull = 0;
+            forceFull = false;
+        }
+        long timestamp = System.currentTimeMillis() / 1000L;
+        writer.execute(() -> publish(players, deaths, full, timestamp));
+    }
+
+    private PlayerContext describe(Player player) {
+        Location location = player.getLocation();
+        List<String> effects = new ArrayList<>();
+        for (PotionEffect effect : player.getActivePotionEffects()) {
+            String name = effect.getType().getKey().getKey();
+            effects.add(effect.getAmplifier() > 0 ? name + " " + (effect.getAmplifier() + 1) : name);
+        }
+        effects.sort(null);
+        return new PlayerContext(
+                player.getName(),
+                plugin.getRankManager().getRank(player.getUniqueId()).name().toLowerCase(Locale.ROOT),
+                Math.round(player.getHealth() * 2) / 2.0,
+                player.getWorld().getName(),
+                coarse(location.getBlockX()),
+                coarse(location.getBlockY()),
+                coarse(location.getBlockZ()),
+                effects);
+    }
+
+    private static int coarse(int block) {
+        return Math.floorDiv(block, 16) * 16;
+    }
+
+    // ── Writer thread ──
+
+    private void publish(List<PlayerContext> players, List<GameEvent> deaths, boolean full, long timestamp) {
+        for (GameEvent death : deaths) {
+            recentDeaths.addLast(death);
+            if (recentDeaths.size() > RECENT_DEATHS) recentDeaths.removeFirst();
+        }
+
+        Map<String, PlayerContext> current = new HashMap<>();
+        for (PlayerContext player : players) current.put(player.name(), player);
+
+        try {
+            if (full) {
+                seq++;
+                write("snapshot.json", new ContextSnapshot(seq, timestamp, players, List.copyOf(recentDeaths)));
+                deleteDeltas();
+            } else {
+                List<PlayerContext> changed = new ArrayList<>();
+                for (PlayerContext player : players) {
+                    if (!player.equals(published.get(player.name()))) changed.add(player);
+                }
+                List<String> left = new ArrayList<>();
+                for (String name : published.keySet()) {
+                    if (!current.containsKey(name)) left.add(name);
+                }
+                if (changed.isEmpty() && left.isEmpty() && deaths.isEmpty()) return;
+                seq++;
+                write("delta-" + seq + ".json", new ContextDelta(seq, timestamp, changed, left, deaths));
+            }
+            published = current;
+        } catch (IOException e) {
+            // Force a full snapshot next time so readers never miss a change
+            seq++;
+            forceFull = true;
+            logger.warning("Failed to write context: " + e.getMessage());
+        }
+    }
+
+    private void write(String name, Object value) throws IOException {
+        Path target = contextDir.resolve(name);
+        Path temp = contextDir.resolve(name + ".tmp");
+        Files.writeString(temp, GSON.toJson(value), StandardCharsets.UTF_8);
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void deleteDeltas() throws IOException {
+        try (DirectoryStream<Path> deltas = Files.newDirectoryStream(contextDir, "delta-*.json")) {
+            for (Path delta : deltas) {
+                Files.deleteIfExists(delta);
+            }
+        }
+    }
+}
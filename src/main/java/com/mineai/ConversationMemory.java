@@ -0,0 +1,312 @@
+package com.mineai;
+
+import com.mineai.model.Exchange;
+import org.bukkit.Bukkit;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Per-player memory of recent /ai exchanges, attached to each outgoing request so the AI
+ * remembers what a player asked before without searching an ever-growing log.
+ *
+ * Each player has a fixed-size ring buffer ({@code memory.size} exchanges, text truncated to
+ * MAX_TEXT characters), so both remembering and reading history cost the same however old the
+ * server is. Rings are stored as small binary files in memory/, loaded at pre-login and written
+ * lazily on a single background thread: when the player quits, every five minutes if changed,
+ * and on shutdown. Clean rings of offline players are then dropped from memory.
+ *
+ * The main thread never waits for the disk: recording for a player whose ring is not loaded
+ * starts a fresh ring at once and merges the stored exchanges in behind it on the writer.
+ */
+public final class ConversationMemory implements Listener {
+
+    private static final int FORMAT = 1;
+    private static final int MAX_TEXT = 160;
+    /** Rings younger than this are kept while their player is offline: they may still be joining. */
+    private static final long JOIN_GRACE_NANOS = 60_000_000_000L;
+
+    /**
+     * Fixed-capacity ring of exchanges; the oldest is overwritten when full.
+     */
+    private static final class Ring {
+        final Exchange[] slots;
+        final long createdNanos = System.nanoTime();
+        int next;
+        int size;
+        boolean dirty;
+
+        Ring(int capacity) {
+            slots = new Exchange[capacity];
+        }
+
+        synchronized boolean isDirty() {
+            return dirty;
+        }
+
+        /**
+         * Put exchanges loaded from disk behind the ones recorded since, keeping the newest.
+         */
+        synchronized void mergeOlder(List<Exchange> older) {
+            List<Exchange> newer = toList();
+            boolean wasDirty = dirty;
+            Arrays.fill(slots, null);
+            next = 0;
+            size = 0;
+            older.forEach(this::add);
+            newer.forEach(this::add);
+            dirty = wasDirty;
+        }
+
+        synchronized void add(Exchange exchange) {
+            slots[next] = exchange;
+            next = (next + 1) % slots.length;
+            if (size < slots.length) size++;
+            dirty = true;
+        }
+
+        /** Oldest first. */
+        synchronized List<Exchange> toList() {
+            List<Exchange> list = new ArrayList<>(size);
+            int start = (next - size + slots.length) % slots.length;
+            for (int i = 0; i < size; i++) {
+                list.add(slots[(start + i) % slots.length]);
+            }
+            return list;
+        }
+    }
+
+    private final MineAI plugin;
+    private final Logger logger;
+    private final Path memoryDir;
+    private final Map<UUID, Ring> rings = new ConcurrentHashMap<>();
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "MineAI-Memory");
+        t.setDaemon(true);
+        return t;
+    });
+    private BukkitTask flushTask;
+
+    public ConversationMemory(MineAI plugin) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.memoryDir = plugin.getDataFolder().toPath().resolve("memory");
+        try {
+            Files.createDirectories(memoryDir);
+        } catch (IOException e) {
+            logger.severe("Failed to create memory directory: " + e.getMessage());
+        }
+    }
+
+    public void start() {
+        if (flushTask != null) return;
+        flushTask = Bukkit.getScheduler().runTaskTimer(plugin, this::flushAll, 6000L, 6000L);
+    }
+
+    /**
+     * Write every changed ring and wait for the writer (used during shutdown).
+     */
+    public void stop() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+        flushAll();
+        writer.shutdown();
+        try {
+            writer.awaitTermination(3, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Remember an exchange. Either side may be null (e.g. a command-only answer).
+     */
+    public void record(UUID playerId, String message, String response) {
+        if (playerId == null || capacity() == 0) return;
+        ring(playerId).add(new Exchange(System.currentTimeMillis() / 1000L, truncate(message), truncate(response)));
+    }
+
+    /**
+     * The player's remembered exchanges, oldest first (empty if none).
+     */
+    public List<Exchange> history(UUID playerId) {
+        if (capacity() == 0) return List.of();
+        Ring ring = rings.get(playerId);
+        return ring != null ? ring.toList() : List.of();
+    }
+
+    /**
+     * Off the main thread: load the ring before the player joins, so the first request
+     * already carries their history.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) return;
+        UUID playerId = event.getUniqueId();
+        if (rings.containsKey(playerId)) return;
+        try {
+            // Loads run on the writer, after any pending write of the same file
+            rings.putIfAbsent(playerId, writer.submit(() -> load(playerId)).get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | RejectedExecutionException e) {
+            // Loaded on first use instead
+        }
+    }
+
+    /**
+     * A login refused after pre-login (ban, whitelist, full server): drop the ring loaded for it.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onLogin(PlayerLoginEvent event) {
+        if (event.getResult() != PlayerLoginEvent.Result.ALLOWED) {
+            dropIfClean(event.getPlayer().getUniqueId());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        flush(event.getPlayer().getUniqueId());
+    }
+
+    private int capacity() {
+        return Math.max(0, Math.min(64, plugin.getConfig().getInt("memory.size", 8)));
+    }
+
+    private static String truncate(String text) {
+        if (text == null) return null;
+        return text.length() <= MAX_TEXT ? text : text.substring(0, MAX_TEXT - 1) + "…";
+    }
+
+    // ── Persistence ──
+
+    /**
+     * The player's ring, without waiting for the disk. If it is not loaded, a fresh ring is
+     * used straight away and the stored exchanges are merged in behind it on the writer,
+     * after any pending write of the same file.
+     */
+    private Ring ring(UUID playerId) {
+        Ring ring = rings.get(playerId);
+        if (ring != null) return ring;
+        Ring fresh = new Ring(Math.max(1, capacity()));
+        Ring existing = rings.putIfAbsent(playerId, fresh);
+        if (existing != null) return existing;
+        try {
+            writer.execute(() -> fresh.mergeOlder(load(playerId).toList()));
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the stored exchanges stay on disk
+        }
+        return fresh;
+    }
+
+    /**
+     * Main thread: queue writes for changed rings, then forget clean rings of offline players
+     * (unless just loaded for a player who is still joining).
+     */
+    private void flushAll() {
+        long now = System.nanoTime();
+        for (Map.Entry<UUID, Ring> entry : rings.entrySet()) {
+            flush(entry.getKey());
+            if (Bukkit.getPlayer(entry.getKey()) == null && now - entry.getValue().createdNanos > JOIN_GRACE_NANOS) {
+                dropIfClean(entry.getKey());
+            }
+        }
+    }
+
+    private void dropIfClean(UUID playerId) {
+        rings.computeIfPresent(playerId, (id, ring) -> ring.isDirty() ? ring : null);
+    }
+
+    private void flush(UUID playerId) {
+        Ring ring = rings.get(playerId);
+        if (ring == null || !ring.isDirty()) return;
+        // Snapshot on the writer, so a load still being merged into the ring is not overwritten
+        writer.execute(() -> {
+            List<Exchange> snapshot;
+            synchronized (ring) {
+                if (!ring.dirty) return;
+                ring.dirty = false;
+                snapshot = ring.toList();
+            }
+            save(playerId, snapshot);
+        });
+    }
+
+    private Ring load(UUID playerId) {
+        Ring ring = new Ring(Math.max(1, capacity()));
+        Path file = memoryDir.resolve(playerId + ".dat");
+        if (!Files.exists(file)) return ring;
+
+        try (InputStream raw = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(raw)) {
+            if (in.readUnsignedByte() != FORMAT) return ring;
+            int count = in.readUnsignedByte();
+            for (int i = 0; i < count; i++) {
+                long timestamp = in.readLong();
+                String message = readNullable(in);
+                String response = readNullable(in);
+                ring.add(new Exchange(timestamp, message, response));
+            }
+            ring.dirty = false;
+        } catch (IOException e) {
+            logger.warning("Failed to load conversation memory for " + playerId + ": " + e.getMessage());
+        }
+        return ring;
+    }
+
+    private void save(UUID playerId, List<Exchange> exchanges) {
+        Path file = memoryDir.resolve(playerId + ".dat");
+        Path temp = memoryDir.resolve(playerId + ".dat.tmp");
+        try {
+            try (OutputStream raw = Files.newOutputStream(temp);
+                 DataOutputStream out = new DataOutputStream(raw)) {
+                out.writeByte(FORMAT);
+                out.writeByte(exchanges.size());
+                for (Exchange exchange : exchanges) {
+                    out.writeLong(exchange.timestamp());
+                    writeNullable(out, exchange.message());
+                    writeNullable(out, exchange.response());
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            logger.warning("Failed to save conversation memory for " + playerId + ": " + e.getMessage());
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeUTF(value);
+    }
+}
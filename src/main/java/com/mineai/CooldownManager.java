@@ -1,68 +1,255 @@
 package com.mineai;
 
-import java.time.Duration;
-import java.time.Instant;
+import com.mineai.RankManager.Rank;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.logging.Logger;
 
 /**
- * Manages per-player cooldowns for the /ai command.
- * Thread-safe and auto-cleans expired entries.
+ * Per-player rate limiting for the /ai command, with a token-bucket policy per rank
+ * loaded from cooldowns.yml.
+ *
+ * Each bucket is a single primitive: its theoretical arrival time in System.nanoTime
+ * (GCRA). A request is allowed while that time is no more than (uses - 1) intervals ahead
+ * of now, and each allowed request pushes it one interval further. A player whose
+ * arrival time has passed has a full bucket and needs no state at all.
+ *
+ * Idle buckets are dropped by a hashed timing wheel of one-second slots advanced once a
+ * second: each entry sits in the slot for its expiry, so expiry costs O(1) per entry
+ * instead of sweeping the whole map. Entries due beyond one revolution are re-slotted
+ * when their slot comes around. Thread-safe.
  */
 public final class CooldownManager {
 
-    private final Duration cooldownDuration;
-    private final Map<UUID, Instant> cooldowns = new ConcurrentHashMap<>();
+    private static final int WHEEL_SLOTS = 64;
+    private static final long SLOT_NANOS = 1_000_000_000L;
+
+    /**
+     * Token bucket: {@code uses} requests per {@code perSeconds}.
+     */
+    public record Policy(int uses, long perSeconds) {
+        long intervalNanos() {
+            return perSeconds * 1_000_000_000L / uses;
+        }
+
+        long toleranceNanos() {
+            return intervalNanos() * (uses - 1);
+        }
+    }
+
+    private static final class Entry {
+        final UUID playerId;
+        long arrival;
+
+        Entry(UUID playerId) {
+            this.playerId = playerId;
+        }
+    }
+
+    private final MineAI plugin;
+    private final Logger logger;
+    private final File dataFile;
+    private final LongSupplier clock;
+    private final Map<UUID, Entry> buckets = new HashMap<>();
+    private final List<List<Entry>> wheel = new ArrayList<>(WHEEL_SLOTS);
+    private final long origin;
+    private long wheelTick;
+    private volatile Policy[] policies;
 
-    public CooldownManager(Duration cooldownDuration) {
-        this.cooldownDuration = cooldownDuration;
+    public CooldownManager(MineAI plugin) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.dataFile = new File(plugin.getDataFolder(), "cooldowns.yml");
+        if (!dataFile.exists()) {
+            plugin.saveResource("cooldowns.yml", false);
+        }
+        this.clock = System::nanoTime;
+        this.origin = clock.getAsLong();
+        for (int i = 0; i < WHEEL_SLOTS; i++) {
+            wheel.add(new ArrayList<>());
+        }
+        policies = loadPolicies();
+    }
+
+    /**
+     * Fixed policies (indexed by rank ordinal) and a nanosecond clock, without cooldowns.yml.
+     * Used by tests.
+     */
+    CooldownManager(Policy[] policies, LongSupplier clock) {
+        this.plugin = null;
+        this.logger = null;
+        this.dataFile = null;
+        this.clock = clock;
+        this.origin = clock.getAsLong();
+        for (int i = 0; i < WHEEL_SLOTS; i++) {
+            wheel.add(new ArrayList<>());
+        }
+        this.policies = policies.clone();
     }
 
     /**
-     * Check if a player is on cooldown.
+     * The policy applied to a rank.
+     */
+    public Policy getPolicy(Rank rank) {
+        return policies[rank.ordinal()];
+    }
+
+    /**
+     * Take one token from the player's bucket if one is available.
      *
-     * @return remaining seconds, or 0 if not on cooldown
+     * @return 0 if the request is allowed (and a token was consumed), otherwise the
+     *         seconds until the next token, rounded up
+     */
+    public long tryAcquire(UUID playerId, Rank rank) {
+        return tryAcquire(playerId, rank, 1.0);
+    }
+
+    /**
+     * As {@link #tryAcquire(UUID, Rank)}, with the refill interval multiplied by
+     * {@code stretch} (used to slow requests down while the AI backend is backlogged).
      */
-    public long getRemainingSeconds(UUID playerId) {
-        Instant expiry = cooldowns.get(playerId);
-        if (expiry == null) return 0;
-
-        long remaining = Duration.between(Instant.now(), expiry).getSeconds();
-        if (remaining <= 0) {
-            cooldowns.remove(playerId);
-            return 0;
+    public synchronized long tryAcquire(UUID playerId, Rank rank, double stretch) {
+        Policy policy = policies[rank.ordinal()];
+        long interval = (long) (policy.intervalNanos() * Math.max(1.0, stretch));
+        long tolerance = interval * (policy.uses() - 1);
+        long now = clock.getAsLong();
+
+        Entry entry = buckets.get(playerId);
+        long arrival = entry != null ? Math.max(entry.arrival, now) : now;
+        long wait = arrival - tolerance - now;
+        if (wait > 0) {
+            return (wait + 999_999_999L) / 1_000_000_000L;
         }
-        return remaining;
+
+        if (entry == null) {
+            entry = new Entry(playerId);
+            buckets.put(playerId, entry);
+            entry.arrival = arrival + interval;
+            schedule(entry);
+        } else {
+            // Already in the wheel; a later expiry is picked up when its slot comes round
+            entry.arrival = arrival + interval;
+        }
+        return 0;
+    }
+
+    /**
+     * Give back a token taken by {@link #tryAcquire(UUID, Rank, double)} with the same rank
+     * and stretch, e.g. because the request it paid for was turned away.
+     */
+    public synchronized void refund(UUID playerId, Rank rank, double stretch) {
+        Entry entry = buckets.get(playerId);
+        if (entry == null) return;
+        Policy policy = policies[rank.ordinal()];
+        // The wheel drops the entry when its slot comes round if this leaves it refilled
+        entry.arrival -= (long) (policy.intervalNanos() * Math.max(1.0, stretch));
+    }
+
+    /**
+     * Seconds until the player may make another request, without consuming a token.
+     */
+    public synchronized long getRemainingSeconds(UUID playerId, Rank rank) {
+        Entry entry = buckets.get(playerId);
+        if (entry == null) return 0;
+        long wait = entry.arrival - policies[rank.ordinal()].toleranceNanos() - clock.getAsLong();
+        return wait > 0 ? (wait + 999_999_999L) / 1_000_000_000L : 0;
     }
 
     /**
-     * Check if a player is currently on cooldown.
+     * Number of players currently holding bucket state.
      */
-    public boolean isOnCooldown(UUID playerId) {
-        return getRemainingSeconds(playerId) > 0;
+    public synchronized int size() {
+        return buckets.size();
     }
 
     /**
-     * Put a player on cooldown starting now.
+     * Advance the timing wheel by one slot, dropping buckets that have refilled.
+     * Should be called once a second.
      */
-    public void setCooldown(UUID playerId) {
-        cooldowns.put(playerId, Instant.now().plus(cooldownDuration));
+    public synchronized void advance() {
+        long now = clock.getAsLong();
+        long target = (now - origin) / SLOT_NANOS;
+        // Catch up on missed seconds, but never spin more than one revolution
+        long from = Math.max(wheelTick + 1, target - WHEEL_SLOTS + 1);
+        for (long tick = from; tick <= target; tick++) {
+            wheelTick = tick;
+            List<Entry> slot = wheel.get((int) (tick % WHEEL_SLOTS));
+            if (slot.isEmpty()) continue;
+
+            List<Entry> due = new ArrayList<>(slot);
+            slot.clear();
+            for (Entry entry : due) {
+                if (entry.arrival <= now) {
+                    buckets.remove(entry.playerId, entry);
+                } else {
+                    schedule(entry);
+                }
+            }
+        }
+        wheelTick = Math.max(wheelTick, target);
     }
 
     /**
-     * Remove all expired entries to prevent memory leaks.
-     * Should be called periodically (e.g., every minute).
+     * Re-read cooldowns.yml off the main thread and swap the policies in.
      */
-    public void cleanup() {
-        Instant now = Instant.now();
-        cooldowns.entrySet().removeIf(entry -> entry.getValue().isBefore(now));
+    public void reloadAsync() {
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> policies = loadPolicies());
     }
 
     /**
      * Clear all cooldowns (e.g., on plugin disable).
      */
-    public void clear() {
-        cooldowns.clear();
+    public synchronized void clear() {
+        buckets.clear();
+        wheel.forEach(List::clear);
+    }
+
+    // ── Timing wheel ──
+
+    private void schedule(Entry entry) {
+        long due = (entry.arrival - origin + SLOT_NANOS - 1) / SLOT_NANOS;
+        // Never schedule into the slot being processed, nor beyond one revolution
+        due = Math.max(due, wheelTick + 1);
+        due = Math.min(due, wheelTick + WHEEL_SLOTS);
+        wheel.get((int) (due % WHEEL_SLOTS)).add(entry);
+    }
+
+    // ── Policies ──
+
+    private Policy[] loadPolicies() {
+        YamlConfiguration config = YamlConfiguration.loadConfiguration(dataFile);
+        Policy fallback = readPolicy(config.getConfigurationSection("default"), new Policy(1, 5), "default");
+
+        Policy[] loaded = new Policy[Rank.values().length];
+        ConfigurationSection ranks = config.getConfigurationSection("ranks");
+        for (Rank rank : Rank.values()) {
+            ConfigurationSection section = ranks != null
+                    ? ranks.getConfigurationSection(rank.name().toLowerCase())
+                    : null;
+            loaded[rank.ordinal()] = readPolicy(section, fallback, "ranks." + rank.name().toLowerCase());
+        }
+        logger.info("Loaded /ai cooldown policies (default " + fallback.uses() + " per "
+                + fallback.perSeconds() + "s).");
+        return loaded;
+    }
+
+    private Policy readPolicy(ConfigurationSection section, Policy fallback, String path) {
+        if (section == null) return fallback;
+        int uses = section.getInt("uses", fallback.uses());
+        long per = section.getLong("per", fallback.perSeconds());
+        if (uses < 1 || per < 1) {
+            logger.warning("Invalid cooldown policy at " + path + "; using default.");
+            return fallback;
+        }
+        return new Policy(uses, per);
     }
 }
@@ -0,0 +1,202 @@
+package com.mineai;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import com.mineai.model.AiResponse;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * Holds AI responses whose target player is offline and replays them when that player joins.
+ *
+ * Parked responses are indexed by player UUID, capped at {@code delivery.max-per-player}
+ * (oldest dropped first) and expire after {@code delivery.expire-minutes}. An async timer
+ * drops expired entries and saves the queue to deferred.json when it changed, so the main
+ * thread only ever parks and takes. Thread-safe.
+ */
+public final class DeliveryQueue {
+
+    private static final Gson GSON = new Gson();
+    /** Ticks to wait after join so the player is fully in the world before powers hit them. */
+    private static final long JOIN_DELAY_TICKS = 40L;
+
+    private record Parked(UUID playerId, long parkedAt, AiResponse response) {}
+
+    private final MineAI plugin;
+    private final Logger logger;
+    private final Path file;
+    private final Map<UUID, List<Parked>> byPlayer = new HashMap<>();
+    private boolean dirty;
+    private long parkedCount;
+    private long delivered;
+    private long expired;
+    private BukkitTask maintenanceTask;
+
+    public DeliveryQueue(MineAI plugin) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.file = plugin.getDataFolder().toPath().resolve("deferred.json");
+        load();
+    }
+
+    /**
+     * Start the async expiry/save timer (every 30 seconds).
+     */
+    public void start() {
+        if (maintenanceTask != null) return;
+        maintenanceTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::maintain, 600L, 600L);
+    }
+
+    /**
+     * Stop the timer and save the queue (used during shutdown).
+     */
+    public void stop() {
+        if (maintenanceTask != null) {
+            maintenanceTask.cancel();
+            maintenanceTask = null;
+        }
+        maintain();
+    }
+
+    /**
+     * Hold a response until the given (offline) player joins.
+     */
+    public synchronized void park(UUID playerId, AiResponse response) {
+        List<Parked> list = byPlayer.computeIfAbsent(playerId, k -> new ArrayList<>());
+        list.add(new Parked(playerId, System.currentTimeMillis(), response));
+        int max = Math.max(1, plugin.getConfig().getInt("delivery.max-per-player", 5));
+        while (list.size() > max) {
+            list.remove(0);
+            expired++;
+        }
+        parkedCount++;
+        dirty = true;
+        logger.info("Parked response for offline player " + response.player() + ".");
+    }
+
+    /**
+     * Replay a joining player's parked responses through the normal execution path, shortly
+     * after they join. MUST be called on the main thread.
+     */
+    public void deliver(Player player) {
+        List<Parked> held;
+        synchronized (this) {
+            held = byPlayer.remove(player.getUniqueId());
+            if (held == null) return;
+            dirty = true;
+        }
+
+        long cutoff = System.currentTimeMillis() - expiryMillis();
+        Bukkit.getScheduler().runTaskLater(plugin, () -> {
+            if (!player.isOnline()) {
+                // Left again before delivery; keep them for next time
+                synchronized (this) {
+                    byPlayer.computeIfAbsent(player.getUniqueId(), k -> new ArrayList<>()).addAll(0, held);
+                    dirty = true;
+                }
+                return;
+            }
+            for (Parked parked : held) {
+                if (parked.parkedAt() < cutoff) continue;
+                plugin.getResponseWatcher().executeResponse(parked.response());
+                synchronized (this) {
+                    delivered++;
+                }
+            }
+        }, JOIN_DELAY_TICKS);
+    }
+
+    public synchronized int size() {
+        int total = 0;
+        for (List<Parked> list : byPlayer.values()) total += list.size();
+        return total;
+    }
+
+    public synchronized long parkedCount() {
+        return parkedCount;
+    }
+
+    public synchronized long deliveredCount() {
+        return delivered;
+    }
+
+    /**
+     * Parked responses dropped unseen (expired or over the per-player cap).
+     */
+    public synchronized long expiredCount() {
+        return expired;
+    }
+
+    private long expiryMillis() {
+        return Math.max(1, plugin.getConfig().getLong("delivery.expire-minutes", 60)) * 60_000L;
+    }
+
+    // ── Maintenance and persistence ──
+
+    /**
+     * Off the main thread: drop expired entries and save if anything changed.
+     */
+    private void maintain() {
+        long cutoff = System.currentTimeMillis() - expiryMillis();
+        List<Parked> snapshot;
+        synchronized (this) {
+            byPlayer.values().removeIf(list -> {
+                int before = list.size();
+                list.removeIf(p -> p.parkedAt() < cutoff);
+                if (list.size() != before) {
+                    expired += before - list.size();
+                    dirty = true;
+                }
+                return list.isEmpty();
+            });
+            if (!dirty) return;
+            dirty = false;
+            snapshot = new ArrayList<>();
+            for (List<Parked> list : byPlayer.values()) snapshot.addAll(list);
+        }
+
+        Path temp = file.resolveSibling("deferred.json.tmp");
+        try {
+            Files.writeString(temp, GSON.toJson(snapshot), StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            synchronized (this) {
+                dirty = true;
+            }
+            logger.warning("Failed to save deferred.json: " + e.getMessage());
+        }
+    }
+
+    private void load() {
+        if (!Files.exists(file)) return;
+        try {
+            List<Parked> saved = GSON.fromJson(Files.readString(file, StandardCharsets.UTF_8),
+                    new TypeToken<List<Parked>>() {}.getType());
+            if (saved == null) return;
+            long cutoff = System.currentTimeMillis() - expiryMillis();
+            int loaded = 0;
+            for (Parked parked : saved) {
+                if (parked.playerId() == null || parked.response() == null || parked.parkedAt() < cutoff) continue;
+                byPlayer.computeIfAbsent(parked.playerId(), k -> new ArrayList<>()).add(parked);
+                loaded++;
+            }
+            if (loaded > 0) logger.info("Loaded " + loaded + " responses awaiting offline players.");
+        } catch (IOException | JsonParseException e) {
+            logger.warning("Failed to load deferred.json: " + e.getMessage());
+        }
+    }
+}
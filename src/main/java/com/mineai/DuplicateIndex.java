@@ -0,0 +1,167 @@
+package com.mineai;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Sliding-window index of 64-bit SimHash fingerprints for spotting near-duplicate messages.
+ *
+ * A message is reduced to its words and adjacent word pairs; each feature's hash votes on
+ * every bit, so rewordings that share most features land within a few bits of each other.
+ * The fingerprint is split into four 16-bit bands, each indexed in its own hash table. Two
+ * fingerprints within Hamming distance 3 must agree exactly on at least one band, so a
+ * lookup only compares against the handful of entries sharing a band instead of the whole
+ * window. Entries expire in arrival order. Not thread-safe; callers synchronize.
+ *
+ * @param <T> the value remembered for each fingerprint
+ */
+public final class DuplicateIndex<T> {
+
+    /** Largest Hamming distance the banding is guaranteed to find. */
+    public static final int MAX_DISTANCE = 3;
+
+    private static final int BANDS = MAX_DISTANCE + 1;
+    private static final int BAND_BITS = 64 / BANDS;
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    /**
+     * A message fingerprint and the number of words it was built from.
+     */
+    public record Fingerprint(long hash, int words) {}
+
+    private record Entry<T>(long hash, T value, long addedNanos) {}
+
+    private final List<Map<Integer, List<Entry<T>>>> bands = new ArrayList<>(BANDS);
+    private final ArrayDeque<Entry<T>> window = new ArrayDeque<>();
+    private final Map<T, Entry<T>> byValue = new IdentityHashMap<>();
+
+    public DuplicateIndex() {
+        for (int i = 0; i < BANDS; i++) {
+            bands.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * SimHash of a message's words and word pairs (case and punctuation ignored).
+     */
+    public static Fingerprint fingerprint(String message) {
+        String normalized = NON_WORD.matcher(message.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+        if (normalized.isEmpty()) return new Fingerprint(0, 0);
+
+        String[] words = normalized.split(" ");
+        int[] votes = new int[64];
+        for (int i = 0; i < words.length; i++) {
+            vote(votes, hash(words[i]));
+            if (i + 1 < words.length) {
+                vote(votes, hash(words[i] + ' ' + words[i + 1]));
+            }
+        }
+
+        long result = 0;
+        for (int bit = 0; bit < 64; bit++) {
+            if (votes[bit] > 0) result |= 1L << bit;
+        }
+        return new Fingerprint(result, words.length);
+    }
+
+    /**
+     * The oldest live value whose fingerprint is within {@code maxDistance} bits, or null.
+     */
+    public T find(long hash, int maxDistance) {
+        return find(hash, maxDistance, value -> true);
+    }
+
+    /**
+     * As {@link #find(long, int)}, considering only values {@code accept} allows.
+     */
+    public T find(long hash, int maxDistance, Predicate<? super T> accept) {
+        int limit = Math.min(maxDistance, MAX_DISTANCE);
+        Entry<T> best = null;
+        for (int b = 0; b < BANDS; b++) {
+            List<Entry<T>> candidates = bands.get(b).get(band(hash, b));
+            if (candidates == null) continue;
+            for (Entry<T> entry : candidates) {
+                if (Long.bitCount(entry.hash() ^ hash) > limit || !accept.test(entry.value())) continue;
+                if (best == null || entry.addedNanos() < best.addedNanos()) best = entry;
+            }
+        }
+        return best != null ? best.value() : null;
+    }
+
+    public void add(long hash, T value, long nowNanos) {
+        remove(value);
+        Entry<T> entry = new Entry<>(hash, value, nowNanos);
+        for (int b = 0; b < BANDS; b++) {
+            bands.get(b).computeIfAbsent(band(hash, b), k -> new ArrayList<>(2)).add(entry);
+        }
+        window.addLast(entry);
+        byValue.put(value, entry);
+    }
+
+    public void remove(T value) {
+        Entry<T> entry = byValue.remove(value);
+        if (entry == null) return;
+        unindex(entry);
+        window.remove(entry);
+    }
+
+    /**
+     * Drop entries added before {@code cutoffNanos}.
+     */
+    public void expire(long cutoffNanos) {
+        while (!window.isEmpty() && window.peekFirst().addedNanos() - cutoffNanos < 0) {
+            Entry<T> entry = window.pollFirst();
+            byValue.remove(entry.value(), entry);
+            unindex(entry);
+        }
+    }
+
+    public int size() {
+        return window.size();
+    }
+
+    private void unindex(Entry<T> entry) {
+        for (int b = 0; b < BANDS; b++) {
+            int key = band(entry.hash(), b);
+            List<Entry<T>> list = bands.get(b).get(key);
+            if (list == null) continue;
+            list.remove(entry);
+            if (list.isEmpty()) bands.get(b).remove(key);
+        }
+    }
+
+    private static int band(long hash, int b) {
+        return (int) ((hash >>> (b * BAND_BITS)) & ((1L << BAND_BITS) - 1));
+    }
+
+    private static void vote(int[] votes, long hash) {
+        for (int bit = 0; bit < 64; bit++) {
+            votes[bit] += ((hash >>> bit) & 1L) != 0 ? 1 : -1;
+        }
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes, finished with a MurmurHash3 mix for better bit spread.
+     */
+    private static long hash(String feature) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : feature.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb34f214aa253L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -50,11 +50,20 @@ public final class EventLogger implements Listener {
 
         // Update their display name on join
         plugin.getRankManager().updatePlayerDisplay(player);
+
+        // Send on any requests held while they were away
+        plugin.getRequestManager().restoreFor(player);
+
+        // Replay answers that arrived while they were offline
+        plugin.getDeliveryQueue().deliver(player);
     }
 
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onPlayerQuit(PlayerQuitEvent event) {
         logEvent("quit", event.getPlayer().getName(), "Player left the server");
+
+        // Nobody is left to answer; withdraw (or park) their pending requests
+        plugin.getRequestManager().cancelFor(event.getPlayer().getUniqueId());
     }
 
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
@@ -63,6 +72,7 @@ public final class EventLogger implements Listener {
                 ? PlainTextComponentSerializer.plainText().serialize(event.deathMessage())
                 : "Unknown cause of death";
         logEvent("death", event.getEntity().getName(), deathMessage);
+        plugin.getContextPublisher().recordDeath(event.getEntity().getName(), deathMessage);
     }
 
     /**
@@ -0,0 +1,299 @@
+package com.mineai;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.Registry;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.potion.PotionEffect;
+import org.bukkit.potion.PotionEffectType;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Data-driven kits and loot tables loaded from kits.yml.
+ * Every entry is compiled once into template ItemStacks (meta already built);
+ * giving a kit only clones the templates into the player's inventory.
+ * Reloads compile a fresh snapshot off the main thread and swap it in atomically.
+ */
+public final class KitRegistry {
+
+    /**
+     * A compiled kit. Templates are never handed out — only clones.
+     */
+    public static final class Kit {
+        private final String name;
+        private final ItemStack[] items;
+        private final ItemStack helmet;
+        private final ItemStack chestplate;
+        private final ItemStack leggings;
+        private final ItemStack boots;
+        private final List<PotionEffect> effects;
+
+        private Kit(String name, List<ItemStack> items, ItemStack helmet, ItemStack chestplate,
+                    ItemStack leggings, ItemStack boots, List<PotionEffect> effects) {
+            this.name = name;
+            this.items = items.toArray(new ItemStack[0]);
+            this.helmet = helmet;
+            this.chestplate = chestplate;
+            this.leggings = leggings;
+            this.boots = boots;
+            this.effects = List.copyOf(effects);
+        }
+
+        public String name() { return name; }
+
+        /**
+         * Equip armor, insert items and apply effects. MUST be called on the main thread.
+         */
+        public void giveTo(Player player) {
+            PlayerInventory inv = player.getInventory();
+            if (helmet != null) inv.setHelmet(helmet.clone());
+            if (chestplate != null) inv.setChestplate(chestplate.clone());
+            if (leggings != null) inv.setLeggings(leggings.clone());
+            if (boots != null) inv.setBoots(boots.clone());
+
+            if (items.length > 0) {
+                ItemStack[] copies = new ItemStack[items.length];
+                for (int i = 0; i < items.length; i++) {
+                    copies[i] = items[i].clone();
+                }
+                inv.addItem(copies);
+            }
+
+            for (PotionEffect effect : effects) {
+                player.addPotionEffect(effect);
+            }
+        }
+    }
+
+    /** Immutable compiled snapshot; replaced wholesale on reload. */
+    private record Templates(Map<String, Kit> kits, Map<String, Kit> loot) {}
+
+    private final MineAI plugin;
+    private final Logger logger;
+    private final File dataFile;
+    private volatile Templates templates = new Templates(Map.of(), Map.of());
+
+    public KitRegistry(MineAI plugin) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.dataFile = new File(plugin.getDataFolder(), "kits.yml");
+        if (!dataFile.exists()) {
+            plugin.saveResource("kits.yml", false);
+        }
+        templates = compile();
+        logger.info("Loaded " + templates.kits().size() + " kits and "
+                + templates.loot().size() + " loot tables.");
+    }
+
+    /**
+     * Get a compiled kit by name (case-insensitive), or null if unknown.
+     */
+    public Kit getKit(String name) {
+        return templates.kits().get(name.toLowerCase());
+    }
+
+    /**
+     * Get a compiled loot table by name (case-insensitive), or null if unknown.
+     */
+    public Kit getLoot(String name) {
+        return templates.loot().get(name.toLowerCase());
+    }
+
+    /**
+     * Names of all kits, for tab completion.
+     */
+    public Set<String> getKitNames() {
+        return templates.kits().keySet();
+    }
+
+    /**
+     * Recompile kits.yml asynchronously and swap the new templates in.
+     * The old snapshot stays live until the new one is fully built.
+     */
+    public void reloadAsync() {
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            Templates fresh = compile();
+            templates = fresh;
+            logger.info("Reloaded " + fresh.kits().size() + " kits and "
+                    + fresh.loot().size() + " loot tables.");
+        });
+    }
+
+    // ── Compilation ──
+
+    private Templates compile() {
+        YamlConfiguration config = YamlConfiguration.loadConfiguration(dataFile);
+        return new Templates(
+                compileSection(config.getConfigurationSection("kits")),
+                compileSection(config.getConfigurationSection("loot"))
+        );
+    }
+
+    private Map<String, Kit> compileSection(ConfigurationSection section) {
+        if (section == null) return Map.of();
+
+        Map<String, Kit> compiled = new HashMap<>();
+        for (String key : section.getKeys(false)) {
+            Kit kit = compileKit(section, key.toLowerCase(), compiled, new HashSet<>());
+            if (kit != null) {
+                compiled.put(kit.name(), kit);
+            }
+        }
+        return Map.copyOf(compiled);
+    }
+
+    private Kit compileKit(ConfigurationSection section, String name,
+                           Map<String, Kit> compiled, Set<String> visiting) {
+        Kit existing = compiled.get(name);
+        if (existing != null) return existing;
+
+        ConfigurationSection kitSection = findChild(section, name);
+        if (kitSection == null) {
+            logger.warning("Unknown kit referenced in kits.yml: " + name);
+            return null;
+        }
+        if (!visiting.add(name)) {
+            logger.warning("Circular 'extends' in kits.yml at: " + name);
+            return null;
+        }
+
+        List<ItemStack> items = new ArrayList<>();
+        ItemStack[] armor = new ItemStack[4];
+        List<PotionEffect> effects = new ArrayList<>();
+
+        String parentName = kitSection.getString("extends");
+        if (parentName != null) {
+            Kit parent = compileKit(section, parentName.toLowerCase(), compiled, visiting);
+            if (parent != null) {
+                items.addAll(List.of(parent.items));
+                armor[0] = parent.helmet;
+                armor[1] = parent.chestplate;
+                armor[2] = parent.leggings;
+                armor[3] = parent.boots;
+                effects.addAll(parent.effects);
+            }
+        }
+
+        for (Map<?, ?> entry : kitSection.getMapList("items")) {
+            ItemStack item = compileItem(name, entry);
+            if (item == null) continue;
+
+            int slot = armorSlot(entry.get("slot"));
+            if (slot >= 0) {
+                armor[slot] = item;
+            } else {
+                items.add(item);
+            }
+        }
+
+        for (Map<?, ?> entry : kitSection.getMapList("effects")) {
+            PotionEffect effect = compileEffect(name, entry);
+            if (effect != null) effects.add(effect);
+        }
+
+        Kit kit = new Kit(name, items, armor[0], armor[1], armor[2], armor[3], effects);
+        compiled.put(name, kit);
+        return kit;
+    }
+
+    private ItemStack compileItem(String kitName, Map<?, ?> entry) {
+        Material material = Material.matchMaterial(String.valueOf(entry.get("material")));
+        if (material == null) {
+            logger.warning("Unknown material in kit '" + kitName + "': " + entry.get("material"));
+            return null;
+        }
+
+        ItemStack item = new ItemStack(material, intValue(entry.get("amount"), 1));
+        Object name = entry.get("name");
+        boolean unbreakable = Boolean.TRUE.equals(entry.get("unbreakable"));
+        Object enchants = entry.get("enchantments");
+
+        if (name == null && !unbreakable && !(enchants instanceof Map<?, ?>)) {
+            return item;
+        }
+
+        ItemMeta meta = item.getItemMeta();
+        if (meta != null) {
+            if (name != null) {
+                meta.displayName(Component.text(name.toString())
+                        .color(NamedTextColor.GOLD)
+                        .decorate(TextDecoration.BOLD)
+                        .decoration(TextDecoration.ITALIC, false));
+            }
+            meta.setUnbreakable(unbreakable);
+            if (enchants instanceof Map<?, ?> map) {
+                for (var e : map.entrySet()) {
+                    Enchantment enchantment = Registry.ENCHANTMENT.get(
+                            NamespacedKey.minecraft(e.getKey().toString().toLowerCase()));
+                    if (enchantment == null) {
+                        logger.warning("Unknown enchantment in kit '" + kitName + "': " + e.getKey());
+                        continue;
+                    }
+                    meta.addEnchant(enchantment, intValue(e.getValue(), 1), true);
+                }
+            }
+            item.setItemMeta(meta);
+        }
+        return item;
+    }
+
+    private PotionEffect compileEffect(String kitName, Map<?, ?> entry) {
+        String type = String.valueOf(entry.get("type")).toLowerCase();
+        PotionEffectType effectType = Registry.EFFECT.get(NamespacedKey.minecraft(type));
+        if (effectType == null) {
+            logger.warning("Unknown effect in kit '" + kitName + "': " + type);
+            return null;
+        }
+        return new PotionEffect(effectType,
+                intValue(entry.get("duration"), 600),
+                intValue(entry.get("amplifier"), 0));
+    }
+
+    private static ConfigurationSection findChild(ConfigurationSection section, String lowerName) {
+        for (String key : section.getKeys(false)) {
+            if (key.equalsIgnoreCase(lowerName)) {
+                return section.getConfigurationSection(key);
+            }
+        }
+        return null;
+    }
+
+    private static int armorSlot(Object slot) {
+        if (slot == null) return -1;
+        return switch (slot.toString().toLowerCase()) {
+            case "helmet", "head" -> 0;
+            case "chestplate", "chest" -> 1;
+            case "leggings", "legs" -> 2;
+            case "boots", "feet" -> 3;
+            default -> -1;
+        };
+    }
+
+    private static int intValue(Object value, int defaultValue) {
+        if (value instanceof Number n) return n.intValue();
+        if (value == null) return defaultValue;
+        try {
+            return Integer.parseInt(value.toString());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.mineai;
+
+/**
+ * Fixed-bucket latency histogram (50 ms to 5 min, roughly logarithmic).
+ * Recording is O(buckets) with no allocation; percentiles report the bucket's upper bound.
+ * Thread-safe.
+ */
+public final class LatencyHistogram {
+
+    private static final long[] BOUNDS_MS = {
+            50, 100, 250, 500, 1_000, 2_500, 5_000, 10_000, 30_000, 60_000, 120_000, 300_000, Long.MAX_VALUE
+    };
+
+    private final long[] counts = new long[BOUNDS_MS.length];
+    private long total;
+    private long sumNanos;
+    private long maxNanos;
+
+    public synchronized void record(long nanos) {
+        long ms = nanos / 1_000_000L;
+        int i = 0;
+        while (ms > BOUNDS_MS[i]) i++;
+        counts[i]++;
+        total++;
+        sumNanos += nanos;
+        if (nanos > maxNanos) maxNanos = nanos;
+    }
+
+    public synchronized long count() {
+        return total;
+    }
+
+    public synchronized double meanMs() {
+        return total == 0 ? 0 : sumNanos / 1e6 / total;
+    }
+
+    public synchronized double maxMs() {
+        return maxNanos / 1e6;
+    }
+
+    /**
+     * Upper bound (ms) of the bucket holding the given quantile, or the observed max for
+     * the open-ended last bucket. 0 if nothing has been recorded.
+     */
+    public synchronized double percentileMs(double quantile) {
+        if (total == 0) return 0;
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return i == counts.length - 1 ? maxMs() : Math.min(BOUNDS_MS[i], maxMs());
+            }
+        }
+        return maxMs();
+    }
+
+    public synchronized void reset() {
+        java.util.Arrays.fill(counts, 0);
+        total = 0;
+        sumNanos = 0;
+        maxNanos = 0;
+    }
+}
@@ -0,0 +1,226 @@
+package com.mineai;
+
+import com.mineai.RankManager.Rank;
+import com.mineai.model.AiResponse;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Local fast path in front of {@link RequestManager}: answers predictable /ai requests
+ * (greetings, "give me diamonds", "heal me") instantly from the intent table in intents.yml.
+ *
+ * Each intent's patterns are compiled once into a single case-insensitive alternation, and
+ * each outcome's per-rank weights into cumulative tables, so matching is a few regex scans
+ * and picking an outcome is one random draw. Answers go through the normal response path
+ * ({@link ResponseWatcher#executeResponse}); unmatched requests are forwarded to the AI.
+ * Reloads compile a fresh table off the main thread and swap it in atomically.
+ */
+public final class LocalResponder {
+
+    /**
+     * What became of a request offered to the local responder.
+     */
+    public enum Result {
+        /** Answered locally; nothing more to do. */
+        HANDLED,
+        /** Answered locally, and must still go to the AI (never to the response cache). */
+        FORWARD,
+        /** No intent matched; try the cache, then the AI. */
+        UNMATCHED
+    }
+
+    private record Outcome(String response, List<String> commands, boolean forward) {}
+
+    /** {@code cumulative[rank][i]} = total weight of outcomes 0..i for that rank. */
+    private record Intent(String name, Pattern pattern, List<Outcome> outcomes, int[][] cumulative) {}
+
+    private record Table(boolean enabled, List<Intent> intents) {}
+
+    private final MineAI plugin;
+    private final Logger logger;
+    private final File dataFile;
+    private volatile Table table = new Table(false, List.of());
+    private long answered;
+    private long forwarded;
+
+    public LocalResponder(MineAI plugin) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.dataFile = new File(plugin.getDataFolder(), "intents.yml");
+        if (!dataFile.exists()) {
+            plugin.saveResource("intents.yml", false);
+        }
+        table = compile();
+        logger.info("Loaded " + table.intents().size() + " local intents"
+                + (table.enabled() ? "." : " (disabled)."));
+    }
+
+    /**
+     * Answer a request locally if it matches an intent. MUST be called on the main thread.
+     *
+     * @return whether the request was handled, answered but forwarded, or not matched
+     */
+    public Result tryAnswer(Player player, String message) {
+        Table current = table;
+        if (!current.enabled()) return Result.UNMATCHED;
+
+        for (Intent intent : current.intents()) {
+            if (!intent.pattern().matcher(message).find()) continue;
+
+            Outcome outcome = pick(intent, plugin.getRankManager().getRank(player.getUniqueId()));
+            if (outcome == null) return Result.UNMATCHED; // every outcome weighted 0 for this rank
+
+            String name = player.getName();
+            List<String> commands = new ArrayList<>(outcome.commands().size());
+            for (String command : outcome.commands()) {
+                commands.add(command.replace("{player}", name));
+            }
+            AiResponse response = new AiResponse(null, name,
+                    outcome.response() != null ? outcome.response().replace("{player}", name) : null,
+                    commands, null, System.currentTimeMillis() / 1000L);
+            plugin.getResponseWatcher().executeResponse(response);
+            plugin.getConversationMemory().record(player.getUniqueId(), message, response.response());
+            logger.info("Answered /ai from " + name + " locally (intent '" + intent.name() + "').");
+
+            answered++;
+            if (outcome.forward()) {
+                forwarded++;
+                return Result.FORWARD;
+            }
+            return Result.HANDLED;
+        }
+        return Result.UNMATCHED;
+    }
+
+    /**
+     * Requests answered locally (including those also forwarded).
+     */
+    public long answeredCount() {
+        return answered;
+    }
+
+    /**
+     * Locally answered requests that were also sent on to the AI.
+     */
+    public long forwardedCount() {
+        return forwarded;
+    }
+
+    /**
+     * Recompile intents.yml asynchronously and swap the new table in.
+     */
+    public void reloadAsync() {
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            Table fresh = compile();
+            table = fresh;
+            logger.info("Reloaded " + fresh.intents().size() + " local intents.");
+        });
+    }
+
+    private static Outcome pick(Intent intent, Rank rank) {
+        int[] cumulative = intent.cumulative()[rank.ordinal()];
+        int total = cumulative[cumulative.length - 1];
+        if (total <= 0) return null;
+        int roll = ThreadLocalRandom.current().nextInt(total);
+        for (int i = 0; i < cumulative.length; i++) {
+            if (roll < cumulative[i]) return intent.outcomes().get(i);
+        }
+        return null;
+    }
+
+    // ── Compilation ──
+
+    private Table compile() {
+        YamlConfiguration config = YamlConfiguration.loadConfiguration(dataFile);
+        ConfigurationSection section = config.getConfigurationSection("intents");
+        if (section == null) return new Table(false, List.of());
+
+        List<Intent> intents = new ArrayList<>();
+        for (String key : section.getKeys(false)) {
+            Intent intent = compileIntent(key, section.getConfigurationSection(key));
+            if (intent != null) intents.add(intent);
+        }
+        return new Table(config.getBoolean("enabled", true), List.copyOf(intents));
+    }
+
+    private Intent compileIntent(String name, ConfigurationSection section) {
+        if (section == null) return null;
+
+        List<String> sources = section.getStringList("patterns");
+        if (sources.isEmpty()) {
+            logger.warning("Intent '" + name + "' has no patterns; skipping.");
+            return null;
+        }
+        Pattern pattern;
+        try {
+            pattern = Pattern.compile("(?:" + String.join(")|(?:", sources) + ")",
+                    Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+        } catch (PatternSyntaxException e) {
+            logger.warning("Invalid pattern in intent '" + name + "': " + e.getDescription());
+            return null;
+        }
+
+        List<Outcome> outcomes = new ArrayList<>();
+        List<int[]> weights = new ArrayList<>(); // per outcome, weight by rank ordinal
+        for (Map<?, ?> entry : section.getMapList("outcomes")) {
+            Object response = entry.get("response");
+            List<String> commands = new ArrayList<>();
+            if (entry.get("commands") instanceof List<?> list) {
+                for (Object command : list) commands.add(String.valueOf(command));
+            }
+            outcomes.add(new Outcome(response != null ? response.toString() : null,
+                    List.copyOf(commands), Boolean.TRUE.equals(entry.get("forward"))));
+
+            int base = intValue(entry.get("weight"), 1);
+            int[] byRank = new int[Rank.values().length];
+            Arrays.fill(byRank, base);
+            if (entry.get("ranks") instanceof Map<?, ?> overrides) {
+                for (var override : overrides.entrySet()) {
+                    Rank rank = Rank.lookup(override.getKey().toString());
+                    if (rank == null) {
+                        logger.warning("Unknown rank in intent '" + name + "': " + override.getKey());
+                        continue;
+                    }
+                    byRank[rank.ordinal()] = intValue(override.getValue(), base);
+                }
+            }
+            weights.add(byRank);
+        }
+        if (outcomes.isEmpty()) {
+            logger.warning("Intent '" + name + "' has no outcomes; skipping.");
+            return null;
+        }
+
+        int[][] cumulative = new int[Rank.values().length][outcomes.size()];
+        for (int r = 0; r < cumulative.length; r++) {
+            int sum = 0;
+            for (int i = 0; i < outcomes.size(); i++) {
+                sum += Math.max(0, weights.get(i)[r]);
+                cumulative[r][i] = sum;
+            }
+        }
+        return new Intent(name, pattern, List.copyOf(outcomes), cumulative);
+    }
+
+    private static int intValue(Object value, int defaultValue) {
+        if (value instanceof Number n) return n.intValue();
+        if (value == null) return defaultValue;
+        try {
+            return Integer.parseInt(value.toString());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
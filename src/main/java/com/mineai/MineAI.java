@@ -4,6 +4,7 @@ import com.mineai.commands.AiCommand;
 import com.mineai.commands.MineAICommand;
 import com.mineai.commands.RankCommand;
 import com.mineai.commands.RanksCommand;
+import io.papermc.paper.chat.ChatRenderer;
 import io.papermc.paper.event.player.AsyncChatEvent;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
@@ -14,7 +15,6 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.plugin.java.JavaPlugin;
 
-import java.time.Duration;
 import java.util.logging.Logger;
 
 /**
@@ -27,12 +27,21 @@ import java.util.logging.Logger;
  */
 public final class MineAI extends JavaPlugin implements Listener {
 
-    private static final Duration DEFAULT_COOLDOWN = Duration.ofSeconds(5);
-
+    private NameIndex nameIndex;
     private RankManager rankManager;
+    private KitRegistry kitRegistry;
     private CooldownManager cooldownManager;
     private RequestManager requestManager;
+    private LocalResponder localResponder;
+    private ResponseCache responseCache;
+    private DeliveryQueue deliveryQueue;
+    private ContextPublisher contextPublisher;
+    private ConversationMemory conversationMemory;
+    private StreamTailer streamTailer;
+    private StatusPublisher statusPublisher;
     private ResponseWatcher responseWatcher;
+    private TimelineScheduler timelineScheduler;
+    private PowerProfiler powerProfiler;
     private EventLogger eventLogger;
 
     @Override
@@ -45,32 +54,63 @@ public final class MineAI extends JavaPlugin implements Listener {
             getDataFolder().mkdirs();
         }
 
+        saveDefaultConfig();
+
         // Initialize managers
+        nameIndex = new NameIndex(this);
         rankManager = new RankManager(this);
-        cooldownManager = new CooldownManager(DEFAULT_COOLDOWN);
+        kitRegistry = new KitRegistry(this);
+        cooldownManager = new CooldownManager(this);
+        conversationMemory = new ConversationMemory(this);
         requestManager = new RequestManager(this);
+        localResponder = new LocalResponder(this);
+        responseCache = new ResponseCache(this);
+        deliveryQueue = new DeliveryQueue(this);
+        contextPublisher = new ContextPublisher(this);
         responseWatcher = new ResponseWatcher(this);
+        streamTailer = new StreamTailer(this);
+        statusPublisher = new StatusPublisher(this);
+        timelineScheduler = new TimelineScheduler(this);
+        powerProfiler = new PowerProfiler(this);
         eventLogger = new EventLogger(this);
 
         // Register events
         getServer().getPluginManager().registerEvents(this, this);
+        getServer().getPluginManager().registerEvents(nameIndex, this);
+        getServer().getPluginManager().registerEvents(rankManager, this);
         getServer().getPluginManager().registerEvents(eventLogger, this);
+        getServer().getPluginManager().registerEvents(conversationMemory, this);
+        getServer().getPluginManager().registerEvents(powerProfiler, this);
 
         // Register commands
         registerCommand("ai", new AiCommand(this));
         MineAICommand mineAICommand = new MineAICommand(this);
         registerCommand("mineai", mineAICommand, mineAICommand);
         registerCommand("rank", new RankCommand(this));
-        registerCommand("ranks", new RanksCommand(this));
+        RanksCommand ranksCommand = new RanksCommand(this);
+        registerCommand("ranks", ranksCommand, ranksCommand);
+
+        // Start per-power cost accounting
+        powerProfiler.start();
 
-        // Start response watcher
+        // Start timeline scheduler before the watcher so early responses can queue steps
+        timelineScheduler.start();
+
+        // Start releasing queued /ai requests, then the response watcher
+        requestManager.start();
         responseWatcher.start();
+        streamTailer.start();
+        responseCache.start();
+        deliveryQueue.start();
+        contextPublisher.start();
+        conversationMemory.start();
+        statusPublisher.start();
 
-        // Schedule cooldown cleanup every 60 seconds
-        Bukkit.getScheduler().runTaskTimer(this, cooldownManager::cleanup, 1200L, 1200L);
+        // Advance the cooldown timing wheel once a second
+        Bukkit.getScheduler().runTaskTimer(this, cooldownManager::advance, 20L, 20L);
 
         // Update display for all currently online players (in case of reload)
-        Bukkit.getOnlinePlayers().forEach(rankManager::updatePlayerDisplay);
+        rankManager.resyncDisplays();
 
         long elapsed = System.currentTimeMillis() - start;
         log.info("MineAI v" + getDescription().getVersion() + " enabled in " + elapsed + "ms");
@@ -79,16 +119,60 @@ public final class MineAI extends JavaPlugin implements Listener {
 
     @Override
     public void onDisable() {
+        if (statusPublisher != null) {
+            statusPublisher.stop();
+        }
+
         // Stop response watcher
         if (responseWatcher != null) {
             responseWatcher.stop();
         }
 
+        if (streamTailer != null) {
+            streamTailer.stop();
+        }
+
+        if (requestManager != null) {
+            requestManager.stop();
+        }
+
+        // Persist cached answers
+        if (responseCache != null) {
+            responseCache.stop();
+        }
+
+        // Persist responses still waiting for offline players
+        if (deliveryQueue != null) {
+            deliveryQueue.stop();
+        }
+
+        if (contextPublisher != null) {
+            contextPublisher.stop();
+        }
+
+        // Write conversation memory that changed since the last flush
+        if (conversationMemory != null) {
+            conversationMemory.stop();
+        }
+
+        // Drop any pending timeline steps
+        if (timelineScheduler != null) {
+            timelineScheduler.stop();
+        }
+
+        if (powerProfiler != null) {
+            powerProfiler.stop();
+        }
+
         // Save ranks synchronously
         if (rankManager != null) {
             rankManager.saveSync();
         }
 
+        if (nameIndex != null) {
+            nameIndex.close();
+        }
+
         // Clear cooldowns
         if (cooldownManager != null) {
             cooldownManager.clear();
@@ -101,19 +185,28 @@ public final class MineAI extends JavaPlugin implements Listener {
 
     @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
     public void onChat(AsyncChatEvent event) {
-        // Replace the default chat renderer with our rank-aware formatter
-        event.renderer((source, sourceDisplayName, message, viewer) -> {
+        // Replace the default chat renderer with our rank-aware formatter. The output does not
+        // depend on the viewer, so it is rendered once per message and shared by every viewer.
+        event.renderer(ChatRenderer.viewerUnaware((source, sourceDisplayName, message) -> {
             String plainMessage = PlainTextComponentSerializer.plainText().serialize(message);
             return rankManager.formatChatMessage(source, plainMessage);
-        });
+        }));
     }
 
     // ── Accessors for managers ──
 
+    public NameIndex getNameIndex() {
+        return nameIndex;
+    }
+
     public RankManager getRankManager() {
         return rankManager;
     }
 
+    public KitRegistry getKitRegistry() {
+        return kitRegistry;
+    }
+
     public CooldownManager getCooldownManager() {
         return cooldownManager;
     }
@@ -122,10 +215,46 @@ public final class MineAI extends JavaPlugin implements Listener {
         return requestManager;
     }
 
+    public LocalResponder getLocalResponder() {
+        return localResponder;
+    }
+
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    public DeliveryQueue getDeliveryQueue() {
+        return deliveryQueue;
+    }
+
+    public ContextPublisher getContextPublisher() {
+        return contextPublisher;
+    }
+
+    public ConversationMemory getConversationMemory() {
+        return conversationMemory;
+    }
+
+    public StreamTailer getStreamTailer() {
+        return streamTailer;
+    }
+
+    public StatusPublisher getStatusPublisher() {
+        return statusPublisher;
+    }
+
     public ResponseWatcher getResponseWatcher() {
         return responseWatcher;
     }
 
+    public TimelineScheduler getTimelineScheduler() {
+        return timelineScheduler;
+    }
+
+    public PowerProfiler getPowerProfiler() {
+        return powerProfiler;
+    }
+
     public EventLogger getEventLogger() {
         return eventLogger;
     }
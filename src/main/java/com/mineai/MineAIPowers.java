@@ -10,15 +10,19 @@ import org.bukkit.block.Block;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.*;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.potion.PotionEffect;
 import org.bukkit.potion.PotionEffectType;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.util.Vector;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 /**
@@ -38,6 +42,9 @@ public final class MineAIPowers {
 
     private final MineAI plugin;
     private final Logger logger;
+    private boolean muted;
+    private long blocksChanged;
+    private String currentPower;
 
     public MineAIPowers(MineAI plugin) {
         this.plugin = plugin;
@@ -50,9 +57,33 @@ public final class MineAIPowers {
 
     /**
      * Dispatch a power by name. Returns true if the power was recognized.
+     * The invocation is timed and attributed to the power; powers whose circuit
+     * breaker is open are recognized but skipped.
      */
     public boolean executePower(String power, Player target, String[] args) {
-        return switch (power.toLowerCase()) {
+        String name = power.toLowerCase();
+        PowerProfiler profiler = plugin.getPowerProfiler();
+        if (profiler.isTripped(name)) {
+            logger.info("Power '" + name + "' is disabled by its circuit breaker; skipping " + target.getName());
+            return true;
+        }
+
+        String previous = currentPower;
+        currentPower = name;
+        long start = System.nanoTime();
+        try {
+            boolean handled = dispatch(name, target, args);
+            if (handled) {
+                profiler.recordInvocation(name, System.nanoTime() - start);
+            }
+            return handled;
+        } finally {
+            currentPower = previous;
+        }
+    }
+
+    private boolean dispatch(String power, Player target, String[] args) {
+        return switch (power) {
             // Wrath
             case "smite"            -> { smite(target); yield true; }
             case "fireball"         -> { fireball(target, intArg(args, 0, 3)); yield true; }
@@ -98,6 +129,28 @@ public final class MineAIPowers {
         };
     }
 
+    /**
+     * Fan a power out to every player a selector resolved to, in one dispatch.
+     * Per-target broadcasts are folded into a single summary line.
+     */
+    public boolean executePower(String power, List<Player> targets, String[] args, String selector) {
+        if (targets.size() == 1) {
+            return executePower(power, targets.get(0), args);
+        }
+
+        muted = true;
+        try {
+            for (Player target : targets) {
+                if (!executePower(power, target, args)) return false;
+            }
+        } finally {
+            muted = false;
+        }
+        broadcastPower("MineAI unleashes " + power.toLowerCase() + " upon "
+                + TargetSelector.describe(selector, targets) + "!");
+        return true;
+    }
+
     // ════════════════════════════════════════════════════════════
     //  WRATH POWERS
     // ════════════════════════════════════════════════════════════
@@ -112,9 +165,9 @@ public final class MineAIPowers {
         Location loc = target.getLocation().add(0, 15, 0);
         for (int i = 0; i < count; i++) {
             final int delay = i * 5;
-            Bukkit.getScheduler().runTaskLater(plugin, () -> {
+            later(() -> {
                 Location spawn = loc.clone().add(RANDOM.nextInt(7) - 3, 0, RANDOM.nextInt(7) - 3);
-                target.getWorld().spawn(spawn, Fireball.class, fb -> {
+                spawn(target.getWorld(), spawn, Fireball.class, fb -> {
                     fb.setDirection(new Vector(0, -1, 0));
                     fb.setYield(2.0f);
                 });
@@ -126,10 +179,10 @@ public final class MineAIPowers {
     private void firestorm(Player target) {
         Location center = target.getLocation();
         int radius = 8;
-        new BukkitRunnable() {
+        new PowerTask() {
             int ticks = 0;
             @Override
-            public void run() {
+            protected void tick() {
                 if (ticks++ > 40) { cancel(); return; }
                 for (int i = 0; i < 3; i++) {
                     double x = center.getX() + RANDOM.nextInt(radius * 2) - radius;
@@ -150,7 +203,7 @@ public final class MineAIPowers {
         for (int x = -radius; x <= radius; x += density) {
             for (int z = -radius; z <= radius; z += density) {
                 Location spawn = center.clone().add(x, RANDOM.nextInt(5), z);
-                target.getWorld().spawn(spawn, TNTPrimed.class, tnt -> tnt.setFuseTicks(40 + RANDOM.nextInt(40)));
+                spawn(target.getWorld(), spawn, TNTPrimed.class, tnt -> tnt.setFuseTicks(40 + RANDOM.nextInt(40)));
             }
         }
         broadcastPower(target.getName() + " is being carpet-bombed with TNT!");
@@ -164,7 +217,7 @@ public final class MineAIPowers {
             Location spawn = center.clone().add(
                     RANDOM.nextInt(radius * 2) - radius, RANDOM.nextInt(5),
                     RANDOM.nextInt(radius * 2) - radius);
-            target.getWorld().spawn(spawn, Arrow.class, arrow -> {
+            spawn(target.getWorld(), spawn, Arrow.class, arrow -> {
                 arrow.setVelocity(new Vector(0, -2, 0));
                 arrow.setDamage(4.0);
             });
@@ -182,10 +235,10 @@ public final class MineAIPowers {
         count = clamp(count, 1, 10);
         for (int i = 0; i < count; i++) {
             final int delay = i * 15;
-            Bukkit.getScheduler().runTaskLater(plugin, () -> {
+            later(() -> {
                 Location loc = target.getLocation().add(
                         RANDOM.nextInt(10) - 5, 40, RANDOM.nextInt(10) - 5);
-                target.getWorld().spawn(loc, Fireball.class, fb -> {
+                spawn(target.getWorld(), loc, Fireball.class, fb -> {
                     fb.setDirection(new Vector(
                             RANDOM.nextDouble() * 0.4 - 0.2, -1,
                             RANDOM.nextDouble() * 0.4 - 0.2));
@@ -203,11 +256,11 @@ public final class MineAIPowers {
         for (int i = 0; i < count; i++) {
             final int delay = i * 3;
             final int r = radius;
-            Bukkit.getScheduler().runTaskLater(plugin, () -> {
+            later(() -> {
                 Location spawn = center.clone().add(
                         RANDOM.nextInt(r * 2) - r, RANDOM.nextInt(5),
                         RANDOM.nextInt(r * 2) - r);
-                target.getWorld().spawn(spawn, Fireball.class, fb -> {
+                spawn(target.getWorld(), spawn, Fireball.class, fb -> {
                     fb.setDirection(new Vector(0, -1.5, 0));
                     fb.setYield(2.0f);
                 });
@@ -221,7 +274,7 @@ public final class MineAIPowers {
         for (int i = 0; i < count; i++) {
             Location spawn = target.getLocation().add(
                     RANDOM.nextInt(10) - 5, 10, RANDOM.nextInt(10) - 5);
-            target.getWorld().spawn(spawn, Wither.class);
+            spawn(target.getWorld(), spawn, Wither.class);
         }
         broadcastPower("💀 Withers have been unleashed upon " + target.getName() + "!");
     }
@@ -231,7 +284,7 @@ public final class MineAIPowers {
         for (int i = 0; i < count; i++) {
             Location spawn = target.getLocation().add(
                     RANDOM.nextInt(6) - 3, 0, RANDOM.nextInt(6) - 3);
-            target.getWorld().spawn(spawn, Creeper.class, creeper -> {
+            spawn(target.getWorld(), spawn, Creeper.class, creeper -> {
                 creeper.setPowered(true);
                 creeper.setMaxFuseTicks(30);
             });
@@ -246,7 +299,7 @@ public final class MineAIPowers {
             for (int z = -radius; z <= radius; z++) {
                 Block block = center.getWorld().getHighestBlockAt(
                         center.getBlockX() + x, center.getBlockZ() + z);
-                block.getRelative(0, 1, 0).setType(Material.LAVA);
+                setBlock(block.getRelative(0, 1, 0), Material.LAVA);
             }
         }
         broadcastPower("🌋 Lava floods around " + target.getName() + "!");
@@ -254,14 +307,13 @@ public final class MineAIPowers {
 
     private void lightningStorm(Player target, int radius, int durationSeconds) {
         radius = clamp(radius, 1, 15);
-        durationSeconds = clamp(durationSeconds, 1, 30);
+        final int maxTicks = clamp(durationSeconds, 1, 30) * 4; // runs every 5 ticks
         final int r = radius;
         Location center = target.getLocation();
-        new BukkitRunnable() {
+        new PowerTask() {
             int ticks = 0;
-            final int maxTicks = durationSeconds * 4; // runs every 5 ticks
             @Override
-            public void run() {
+            protected void tick() {
                 if (ticks++ > maxTicks) { cancel(); return; }
                 double x = center.getX() + RANDOM.nextInt(r * 2) - r;
                 double z = center.getZ() + RANDOM.nextInt(r * 2) - r;
@@ -286,9 +338,9 @@ public final class MineAIPowers {
             for (int y = 0; y <= 2; y++) {
                 for (int z = -1; z <= 1; z++) {
                     if (x == 0 && z == 0 && (y == 0 || y == 1)) continue; // keep player space
-                    loc.getWorld().getBlockAt(
+                    setBlock(loc.getWorld().getBlockAt(
                             loc.getBlockX() + x, loc.getBlockY() + y, loc.getBlockZ() + z
-                    ).setType(mat);
+                    ), mat);
                 }
             }
         }
@@ -303,9 +355,9 @@ public final class MineAIPowers {
                 for (int z = -2; z <= 2; z++) {
                     boolean edge = Math.abs(x) == 2 || Math.abs(z) == 2 || y == 3;
                     if (edge) {
-                        loc.getWorld().getBlockAt(
+                        setBlock(loc.getWorld().getBlockAt(
                                 loc.getBlockX() + x, loc.getBlockY() + y, loc.getBlockZ() + z
-                        ).setType(bars);
+                        ), bars);
                     }
                 }
             }
@@ -320,9 +372,9 @@ public final class MineAIPowers {
                 for (int z = -2; z <= 2; z++) {
                     boolean wall = Math.abs(x) == 2 || Math.abs(z) == 2 || y == -1 || y == 4;
                     if (wall) {
-                        loc.getWorld().getBlockAt(
+                        setBlock(loc.getWorld().getBlockAt(
                                 loc.getBlockX() + x, loc.getBlockY() + y, loc.getBlockZ() + z
-                        ).setType(Material.OBSIDIAN);
+                        ), Material.OBSIDIAN);
                     }
                 }
             }
@@ -350,11 +402,11 @@ public final class MineAIPowers {
     }
 
     private void tornado(Player target) {
-        new BukkitRunnable() {
+        new PowerTask() {
             int ticks = 0;
             double angle = 0;
             @Override
-            public void run() {
+            protected void tick() {
                 if (ticks++ > 60 || !target.isOnline()) { cancel(); return; }
                 angle += 0.5;
                 double radius = 2;
@@ -371,16 +423,16 @@ public final class MineAIPowers {
         count = clamp(count, 1, 50);
         for (int i = 0; i < count; i++) {
             final int delay = i * 3;
-            Bukkit.getScheduler().runTaskLater(plugin, () -> {
+            later(() -> {
                 Location spawn = target.getLocation().add(
                         RANDOM.nextInt(8) - 4, 20 + RANDOM.nextInt(10),
                         RANDOM.nextInt(8) - 4);
-                target.getWorld().spawn(spawn, FallingBlock.class, fb -> {
+                spawn(target.getWorld(), spawn, FallingBlock.class, fb -> {
                     // FallingBlock needs the block data set via spawn
                 });
                 // Alternative: spawn a falling anvil entity
-                target.getWorld().spawnFallingBlock(spawn,
-                        Material.ANVIL.createBlockData());
+                plugin.getPowerProfiler().recordSpawn(target.getWorld().spawnFallingBlock(spawn,
+                        Material.ANVIL.createBlockData()));
             }, delay);
         }
         broadcastPower("Anvils rain down on " + target.getName() + "! 🔨");
@@ -392,9 +444,9 @@ public final class MineAIPowers {
         for (int x = -radius; x <= radius; x++) {
             for (int z = -radius; z <= radius; z++) {
                 for (int y = 0; y >= -5; y--) {
-                    loc.getWorld().getBlockAt(
+                    setBlock(loc.getWorld().getBlockAt(
                             loc.getBlockX() + x, loc.getBlockY() + y, loc.getBlockZ() + z
-                    ).setType(Material.AIR);
+                    ), Material.AIR);
                 }
             }
         }
@@ -411,10 +463,10 @@ public final class MineAIPowers {
         radius = clamp(radius, 1, 20);
         final int r = radius;
         Location center = target.getLocation();
-        new BukkitRunnable() {
+        new PowerTask() {
             int ticks = 0;
             @Override
-            public void run() {
+            protected void tick() {
                 if (ticks++ > 20) { cancel(); return; }
                 for (int i = 0; i < 5; i++) {
                     int x = RANDOM.nextInt(r * 2) - r;
@@ -441,11 +493,11 @@ public final class MineAIPowers {
         Location center = target.getLocation().add(0, 30, 0);
         for (int i = 0; i < 15; i++) {
             final int delay = i * 3;
-            Bukkit.getScheduler().runTaskLater(plugin, () -> {
+            later(() -> {
                 Location spawn = center.clone().add(
                         RANDOM.nextInt(10) - 5, RANDOM.nextInt(5),
                         RANDOM.nextInt(10) - 5);
-                target.getWorld().spawn(spawn, Fireball.class, fb -> {
+                spawn(target.getWorld(), spawn, Fireball.class, fb -> {
                     fb.setDirection(new Vector(
                             RANDOM.nextDouble() * 0.3 - 0.15, -1.5,
                             RANDOM.nextDouble() * 0.3 - 0.15));
@@ -481,115 +533,35 @@ public final class MineAIPowers {
     }
 
     private void godSet(Player target) {
-        ItemStack helmet = enchantedItem(Material.NETHERITE_HELMET, "Divine Crown");
-        ItemStack chest = enchantedItem(Material.NETHERITE_CHESTPLATE, "Divine Plate");
-        ItemStack legs = enchantedItem(Material.NETHERITE_LEGGINGS, "Divine Greaves");
-        ItemStack boots = enchantedItem(Material.NETHERITE_BOOTS, "Divine Treads");
-        ItemStack sword = enchantedItem(Material.NETHERITE_SWORD, "Divine Blade");
-
-        target.getInventory().setHelmet(helmet);
-        target.getInventory().setChestplate(chest);
-        target.getInventory().setLeggings(legs);
-        target.getInventory().setBoots(boots);
-        target.getInventory().addItem(sword);
-
+        if (!giveTemplate(plugin.getKitRegistry().getKit("godset"), target)) return;
         target.getWorld().spawnParticle(Particle.TOTEM_OF_UNDYING, target.getLocation().add(0, 1, 0), 100, 1, 2, 1, 0.3);
         broadcastPower(target.getName() + " has received the God Set! ⚔️");
     }
 
     private void giveKit(Player target, String kitName) {
-        switch (kitName.toLowerCase()) {
-            case "starter" -> {
-                target.getInventory().addItem(
-                        new ItemStack(Material.IRON_SWORD),
-                        new ItemStack(Material.IRON_PICKAXE),
-                        new ItemStack(Material.BREAD, 32),
-                        new ItemStack(Material.TORCH, 16)
-                );
-                target.getInventory().setChestplate(new ItemStack(Material.IRON_CHESTPLATE));
-            }
-            case "warrior" -> {
-                target.getInventory().addItem(
-                        new ItemStack(Material.DIAMOND_SWORD),
-                        new ItemStack(Material.SHIELD),
-                        new ItemStack(Material.GOLDEN_APPLE, 8)
-                );
-                target.getInventory().setHelmet(new ItemStack(Material.DIAMOND_HELMET));
-                target.getInventory().setChestplate(new ItemStack(Material.DIAMOND_CHESTPLATE));
-                target.getInventory().setLeggings(new ItemStack(Material.DIAMOND_LEGGINGS));
-                target.getInventory().setBoots(new ItemStack(Material.DIAMOND_BOOTS));
-            }
-            case "mage" -> {
-                target.getInventory().addItem(
-                        new ItemStack(Material.TRIDENT),
-                        new ItemStack(Material.ENDER_PEARL, 16),
-                        new ItemStack(Material.GOLDEN_APPLE, 8),
-                        new ItemStack(Material.EXPERIENCE_BOTTLE, 64)
-                );
-                target.addPotionEffect(new PotionEffect(PotionEffectType.REGENERATION, 6000, 1));
-            }
-            case "archer" -> {
-                target.getInventory().addItem(
-                        new ItemStack(Material.BOW),
-                        new ItemStack(Material.ARROW, 128),
-                        new ItemStack(Material.SPECTRAL_ARROW, 32),
-                        new ItemStack(Material.GOLDEN_APPLE, 4)
-                );
-                target.getInventory().setChestplate(new ItemStack(Material.LEATHER_CHESTPLATE));
-                target.getInventory().setBoots(new ItemStack(Material.LEATHER_BOOTS));
-            }
-            case "tank" -> {
-                target.getInventory().addItem(
-                        new ItemStack(Material.NETHERITE_SWORD),
-                        new ItemStack(Material.SHIELD),
-                        new ItemStack(Material.GOLDEN_APPLE, 16),
-                        new ItemStack(Material.TOTEM_OF_UNDYING)
-                );
-                target.getInventory().setHelmet(new ItemStack(Material.NETHERITE_HELMET));
-                target.getInventory().setChestplate(new ItemStack(Material.NETHERITE_CHESTPLATE));
-                target.getInventory().setLeggings(new ItemStack(Material.NETHERITE_LEGGINGS));
-                target.getInventory().setBoots(new ItemStack(Material.NETHERITE_BOOTS));
-                target.addPotionEffect(new PotionEffect(PotionEffectType.RESISTANCE, 6000, 1));
-            }
-            case "god" -> {
-                godSet(target);
-                bless(target);
-                target.getInventory().addItem(
-                        new ItemStack(Material.ENCHANTED_GOLDEN_APPLE, 16),
-                        new ItemStack(Material.TOTEM_OF_UNDYING, 3),
-                        new ItemStack(Material.ELYTRA)
-                );
-                return; // godSet already broadcasts
-            }
-            default -> {
-                broadcastPower(target.getName() + " requested an unknown kit: " + kitName);
-                return;
-            }
+        KitRegistry.Kit kit = plugin.getKitRegistry().getKit(kitName);
+        if (kit == null) {
+            broadcastPower(target.getName() + " requested an unknown kit: " + kitName);
+            return;
         }
-        broadcastPower(target.getName() + " has received the " + kitName + " kit! 🎁");
+        kit.giveTo(target);
+
+        if (kit.name().equals("god")) {
+            target.getWorld().spawnParticle(Particle.TOTEM_OF_UNDYING, target.getLocation().add(0, 1, 0), 100, 1, 2, 1, 0.3);
+            broadcastPower(target.getName() + " has received the God Set! ⚔️");
+            bless(target);
+            return;
+        }
+        broadcastPower(target.getName() + " has received the " + kit.name() + " kit! 🎁");
     }
 
     private void feast(Player target) {
-        target.getInventory().addItem(
-                new ItemStack(Material.COOKED_BEEF, 64),
-                new ItemStack(Material.GOLDEN_CARROT, 32),
-                new ItemStack(Material.CAKE),
-                new ItemStack(Material.PUMPKIN_PIE, 16),
-                new ItemStack(Material.GOLDEN_APPLE, 8)
-        );
-        target.addPotionEffect(new PotionEffect(PotionEffectType.SATURATION, 600, 2));
+        if (!giveTemplate(plugin.getKitRegistry().getLoot("feast"), target)) return;
         broadcastPower(target.getName() + " has been granted a divine feast! 🍖");
     }
 
     private void treasure(Player target) {
-        target.getInventory().addItem(
-                new ItemStack(Material.DIAMOND, 32),
-                new ItemStack(Material.EMERALD, 64),
-                new ItemStack(Material.NETHERITE_INGOT, 8),
-                new ItemStack(Material.GOLDEN_APPLE, 16),
-                new ItemStack(Material.ENCHANTED_GOLDEN_APPLE, 4),
-                new ItemStack(Material.TOTEM_OF_UNDYING)
-        );
+        if (!giveTemplate(plugin.getKitRegistry().getLoot("treasure"), target)) return;
         target.getWorld().spawnParticle(Particle.TOTEM_OF_UNDYING, target.getLocation().add(0, 1, 0), 80, 1, 2, 1, 0.2);
         broadcastPower(target.getName() + " has received MineAI's treasure! 💎");
     }
@@ -647,7 +619,7 @@ public final class MineAIPowers {
         for (int i = 0; i < count; i++) {
             Location spawn = target.getLocation().add(
                     RANDOM.nextInt(6) - 3, 0, RANDOM.nextInt(6) - 3);
-            target.getWorld().spawnEntity(spawn, type);
+            spawnEntity(target.getWorld(), spawn, type);
         }
         broadcastPower(count + "x " + entityName + " spawned near " + target.getName() + "!");
     }
@@ -664,7 +636,7 @@ public final class MineAIPowers {
         for (int i = 0; i < count; i++) {
             Location spawn = target.getLocation().add(
                     RANDOM.nextInt(10) - 5, 0, RANDOM.nextInt(10) - 5);
-            target.getWorld().spawnEntity(spawn, entityType);
+            spawnEntity(target.getWorld(), spawn, entityType);
         }
         broadcastPower("An army of " + type + " marches toward " + target.getName() + "! ⚔");
     }
@@ -672,7 +644,7 @@ public final class MineAIPowers {
     private void spawnBoss(Player target) {
         // Spawn a wither as the "boss"
         Location spawn = target.getLocation().add(0, 5, 0);
-        Wither wither = (Wither) target.getWorld().spawnEntity(spawn, EntityType.WITHER);
+        Wither wither = (Wither) spawnEntity(target.getWorld(), spawn, EntityType.WITHER);
         wither.customName(Component.text("MineAI's Champion")
                 .color(NamedTextColor.DARK_RED)
                 .decorate(TextDecoration.BOLD));
@@ -682,7 +654,7 @@ public final class MineAIPowers {
         for (int i = 0; i < 5; i++) {
             Location minLoc = target.getLocation().add(
                     RANDOM.nextInt(8) - 4, 0, RANDOM.nextInt(8) - 4);
-            target.getWorld().spawnEntity(minLoc, EntityType.WITHER_SKELETON);
+            spawnEntity(target.getWorld(), minLoc, EntityType.WITHER_SKELETON);
         }
         broadcastPower("☠ MineAI's Champion has been summoned near " + target.getName() + "!");
     }
@@ -743,14 +715,57 @@ public final class MineAIPowers {
         }
     }
 
-    public void executeSetRank(CommandSender sender, String playerName, String rankName) {
-        Rank rank = Rank.fromString(rankName);
-        boolean success = plugin.getRankManager().setRank(playerName, rank);
-        if (success) {
-            broadcastPower(playerName + " has been ranked to " + rank.displayName() + "!");
+    /**
+     * Set the rank of one player, a comma-separated list of players, or a selector's matches.
+     * All changes are applied as a single bulk update. An unknown rank name is refused before
+     * any target is resolved, so a typo cannot demote everyone matched to peasant.
+     */
+    public void executeSetRank(CommandSender sender, String targets, String rankName) {
+        Rank rank = Rank.lookup(rankName);
+        if (rank == null) {
+            sender.sendMessage(Component.text("Unknown rank: " + rankName).color(NamedTextColor.RED));
+            return;
+        }
+        NameIndex names = plugin.getNameIndex();
+        Map<UUID, Rank> changes = new LinkedHashMap<>();
+
+        if (TargetSelector.isSelector(targets)) {
+            List<Player> players = TargetSelector.resolve(targets, plugin.getRankManager(), names);
+            if (players == null) {
+                sender.sendMessage(Component.text("Invalid selector: " + targets).color(NamedTextColor.RED));
+                return;
+            }
+            for (Player p : players) {
+                changes.put(p.getUniqueId(), rank);
+            }
         } else {
-            sender.sendMessage(Component.text("Player '" + playerName + "' not found.")
-                    .color(NamedTextColor.RED));
+            List<String> unknown = new ArrayList<>();
+            for (String name : targets.split(",")) {
+                if (name.isBlank()) continue;
+                UUID playerId = names.lookup(name.trim());
+                if (playerId != null) {
+                    changes.put(playerId, rank);
+                } else {
+                    unknown.add(name.trim());
+                }
+            }
+            if (!unknown.isEmpty()) {
+                sender.sendMessage(Component.text("Never joined: " + String.join(", ", unknown))
+                        .color(NamedTextColor.RED));
+            }
+        }
+
+        if (changes.isEmpty()) {
+            sender.sendMessage(Component.text("No players to rank.").color(NamedTextColor.GRAY));
+            return;
+        }
+
+        plugin.getRankManager().setRanks(changes);
+        if (changes.size() == 1) {
+            broadcastPower(names.nameOf(changes.keySet().iterator().next())
+                    + " has been ranked to " + rank.displayName() + "!");
+        } else {
+            broadcastPower(changes.size() + " players have been ranked to " + rank.displayName() + "!");
         }
     }
 
@@ -759,7 +774,9 @@ public final class MineAIPowers {
         sender.sendMessage(Component.text("⚡ MineAI Rank Hierarchy ⚡")
                 .color(NamedTextColor.GOLD).decorate(TextDecoration.BOLD));
         for (Rank rank : plugin.getRankManager().getAllRanks()) {
-            sender.sendMessage(plugin.getRankManager().getRankDisplayComponent(rank));
+            sender.sendMessage(plugin.getRankManager().getRankDisplayComponent(rank)
+                    .append(Component.text(" (" + plugin.getRankManager().countRank(rank) + ")")
+                            .color(NamedTextColor.DARK_GRAY)));
         }
     }
 
@@ -768,6 +785,7 @@ public final class MineAIPowers {
     // ════════════════════════════════════════════════════════════
 
     private void broadcastPower(String message) {
+        if (muted) return;
         Component msg = AI_PREFIX.append(
                 Component.text(message)
                         .color(NamedTextColor.RED)
@@ -776,18 +794,101 @@ public final class MineAIPowers {
         Bukkit.broadcast(msg);
     }
 
-    private ItemStack enchantedItem(Material material, String name) {
-        ItemStack item = new ItemStack(material);
-        ItemMeta meta = item.getItemMeta();
-        if (meta != null) {
-            meta.displayName(Component.text(name)
-                    .color(NamedTextColor.GOLD)
-                    .decorate(TextDecoration.BOLD)
-                    .decoration(TextDecoration.ITALIC, false));
-            meta.setUnbreakable(true);
-            item.setItemMeta(meta);
+    /**
+     * Give a prebuilt kit/loot template, logging if kits.yml no longer defines it.
+     */
+    private boolean giveTemplate(KitRegistry.Kit kit, Player target) {
+        if (kit == null) {
+            logger.warning("Kit template missing from kits.yml; skipping power for " + target.getName());
+            return false;
+        }
+        kit.giveTo(target);
+        return true;
+    }
+
+    /**
+     * Schedule a delayed follow-up for the power being executed, attributing its cost.
+     */
+    private void later(Runnable task, long delay) {
+        String power = currentPower;
+        Bukkit.getScheduler().runTaskLater(plugin, () -> {
+            PowerProfiler profiler = plugin.getPowerProfiler();
+            if (profiler.isTripped(power)) return;
+            long start = System.nanoTime();
+            try {
+                task.run();
+            } finally {
+                profiler.recordFollowUp(power, System.nanoTime() - start);
+            }
+        }, delay);
+    }
+
+    /**
+     * Repeating follow-up for the power being executed. Each tick is timed and attributed
+     * to the power, and the task cancels itself if that power's breaker trips.
+     */
+    private abstract class PowerTask extends BukkitRunnable {
+        private final String power = currentPower;
+
+        protected abstract void tick();
+
+        @Override
+        public final void run() {
+            PowerProfiler profiler = plugin.getPowerProfiler();
+            if (profiler.isTripped(power)) {
+                cancel();
+                return;
+            }
+            long start = System.nanoTime();
+            try {
+                tick();
+            } finally {
+                profiler.recordFollowUp(power, System.nanoTime() - start);
+            }
         }
-        return item;
+    }
+
+    /**
+     * Spawn an entity for the power being executed, tracking it as AI-spawned.
+     */
+    private <T extends Entity> T spawn(World world, Location location, Class<T> type) {
+        T entity = world.spawn(location, type);
+        plugin.getPowerProfiler().recordSpawn(entity);
+        return entity;
+    }
+
+    private <T extends Entity> T spawn(World world, Location location, Class<T> type, Consumer<? super T> setup) {
+        T entity = world.spawn(location, type, setup);
+        plugin.getPowerProfiler().recordSpawn(entity);
+        return entity;
+    }
+
+    private Entity spawnEntity(World world, Location location, EntityType type) {
+        Entity entity = world.spawnEntity(location, type);
+        plugin.getPowerProfiler().recordSpawn(entity);
+        return entity;
+    }
+
+    /**
+     * Set a block directly, counting the change for benchmarks.
+     */
+    private void setBlock(Block block, Material material) {
+        block.setType(material);
+        blocksChanged++;
+    }
+
+    /**
+     * Suppress power broadcasts (used while benchmarking). Main thread only.
+     */
+    void setMuted(boolean muted) {
+        this.muted = muted;
+    }
+
+    /**
+     * Total blocks set directly by powers since startup. Main thread only.
+     */
+    long getBlocksChanged() {
+        return blocksChanged;
     }
 
     private static int intArg(String[] args, int index, int defaultValue) {
@@ -0,0 +1,196 @@
+package com.mineai;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Persistent, case-insensitive name → UUID index (and UUID → last known name) for every
+ * player who has joined. Lets rank reads/writes and power targeting resolve players who
+ * are offline, in O(1), without Bukkit.getPlayerExact scans or Mojang lookups.
+ *
+ * Updated during AsyncPlayerPreLoginEvent; new mappings are appended to names.log on a
+ * single background writer so appends stay ordered. The log is rewritten compactly on
+ * startup once it holds mostly superseded lines.
+ */
+public final class NameIndex implements Listener {
+
+    private final Logger logger;
+    private final Path file;
+    private final Map<String, UUID> byName = new ConcurrentHashMap<>();
+    private final Map<UUID, String> byId = new ConcurrentHashMap<>();
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "MineAI-NameIndex");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public NameIndex(MineAI plugin) {
+        this.logger = plugin.getLogger();
+        this.file = plugin.getDataFolder().toPath().resolve("names.log");
+        load();
+
+        // Index anyone already online (plugin reload)
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            record(player.getName(), player.getUniqueId());
+        }
+    }
+
+    /**
+     * Resolve a player name (any case) to a UUID.
+     *
+     * @return the UUID, or null if no player with that name has ever joined
+     */
+    public UUID lookup(String name) {
+        return byName.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Last known name for a UUID, or null if unknown.
+     */
+    public String nameOf(UUID playerId) {
+        return byId.get(playerId);
+    }
+
+    /**
+     * Resolve a name to an online player via the index, falling back to Bukkit's lookup.
+     */
+    public Player findOnline(String name) {
+        UUID id = lookup(name);
+        if (id != null) {
+            Player player = Bukkit.getPlayer(id);
+            if (player != null) return player;
+        }
+        return Bukkit.getPlayerExact(name);
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    /**
+     * Record a name/UUID pair, persisting it only if the mapping changed.
+     */
+    public void record(String name, UUID playerId) {
+        String key = name.toLowerCase(Locale.ROOT);
+        UUID previous = byName.put(key, playerId);
+        String previousName = byId.put(playerId, name);
+        if (playerId.equals(previous) && name.equals(previousName)) return;
+
+        // A rename leaves the old name pointing at this UUID; drop it
+        if (previousName != null && !previousName.equalsIgnoreCase(name)) {
+            byName.remove(previousName.toLowerCase(Locale.ROOT), playerId);
+        }
+
+        String line = playerId + " " + name + "\n";
+        writer.execute(() -> {
+            try {
+                Files.writeString(file, line, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                logger.warning("Failed to append to names.log: " + e.getMessage());
+            }
+        });
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) return;
+        record(event.getName(), event.getUniqueId());
+    }
+
+    /**
+     * Finish pending appends (used during shutdown).
+     */
+    public void close() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(3, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ── Persistence ──
+
+    private void load() {
+        if (!Files.exists(file)) return;
+
+        int lines = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int space = line.indexOf(' ');
+                if (space < 0) continue;
+                try {
+                    UUID id = UUID.fromString(line.substring(0, space));
+                    String name = line.substring(space + 1);
+                    String old = byId.put(id, name);
+                    if (old != null && !old.equalsIgnoreCase(name)) {
+                        byName.remove(old.toLowerCase(Locale.ROOT), id);
+                    }
+                    byName.put(name.toLowerCase(Locale.ROOT), id);
+                    lines++;
+                } catch (IllegalArgumentException e) {
+                    logger.warning("Skipping malformed names.log entry: " + line);
+                }
+            }
+        } catch (IOException e) {
+            logger.severe("Failed to load names.log: " + e.getMessage());
+            return;
+        }
+
+        if (lines > byId.size() * 2 + 1000) {
+            compact();
+        }
+        logger.info("Indexed " + byId.size() + " player names.");
+    }
+
+    /**
+     * Rewrite the log with one line per known player, including those whose last name has
+     * since been taken by someone else. Their lines come first, so on replay the current
+     * holder of each name wins it back.
+     */
+    private void compact() {
+        Path temp = file.resolveSibling("names.log.tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            for (boolean holders : new boolean[] {false, true}) {
+                for (var entry : byId.entrySet()) {
+                    UUID id = entry.getKey();
+                    String name = entry.getValue();
+                    if (id.equals(byName.get(name.toLowerCase(Locale.ROOT))) == holders) {
+                        out.write(id + " " + name + "\n");
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.warning("Failed to compact names.log: " + e.getMessage());
+            return;
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            logger.warning("Failed to replace names.log: " + e.getMessage());
+        }
+    }
+}
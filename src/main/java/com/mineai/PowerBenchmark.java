@@ -0,0 +1,184 @@
+package com.mineai;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.event.entity.EntitySpawnEvent;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.logging.Logger;
+
+/**
+ * Backs /mineai bench — runs a power N times against a test target and measures what it costs:
+ * main-thread nanoseconds of the invocation itself, entities spawned and blocks changed
+ * over the effect's lifetime, and the MSPT delta against the pre-run baseline.
+ * Results are printed and appended to bench.csv. Powers really run, so benchmarks are only
+ * allowed in the worlds listed under {@code bench.sandbox-worlds} in config.yml.
+ */
+public final class PowerBenchmark implements Listener {
+
+    /** How long to keep observing after invocation; covers the longest built-in effects. */
+    private static final int OBSERVE_TICKS = 200;
+    private static final int MAX_ITERATIONS = 100;
+    private static final String CSV_HEADER =
+            "timestamp,power,iterations,args,total_ns,avg_ns,max_ns,entities,blocks,mspt_before,mspt_avg,mspt_peak,mspt_delta\n";
+
+    private final MineAI plugin;
+    private final MineAIPowers powers;
+    private final Logger logger;
+    private final Path csvFile;
+
+    private boolean active;
+    private long entitiesSpawned;
+    private long blocksExploded;
+
+    public PowerBenchmark(MineAI plugin, MineAIPowers powers) {
+        this.plugin = plugin;
+        this.powers = powers;
+        this.logger = plugin.getLogger();
+        this.csvFile = plugin.getDataFolder().toPath().resolve("bench.csv");
+    }
+
+    /**
+     * Start a benchmark run. MUST be called on the main thread.
+     *
+     * @return false if the power is unknown
+     */
+    public boolean run(CommandSender sender, Player target, String power, int iterations, String[] args) {
+        if (active) {
+            sender.sendMessage(Component.text("A benchmark is already running.").color(NamedTextColor.RED));
+            return true;
+        }
+        String world = target.getWorld().getName();
+        if (!plugin.getConfig().getStringList("bench.sandbox-worlds").contains(world)) {
+            sender.sendMessage(Component.text("Benchmarks run real powers; '" + world
+                    + "' is not listed in bench.sandbox-worlds (config.yml).").color(NamedTextColor.RED));
+            return true;
+        }
+        int runs = Math.max(1, Math.min(iterations, MAX_ITERATIONS));
+
+        double msptBefore = Bukkit.getAverageTickTime();
+        long blocksBefore = powers.getBlocksChanged();
+        entitiesSpawned = 0;
+        blocksExploded = 0;
+        active = true;
+
+        long totalNanos = 0;
+        long maxNanos = 0;
+        boolean started = false;
+        powers.setMuted(true);
+        try {
+            for (int i = 0; i < runs; i++) {
+                long start = System.nanoTime();
+                boolean handled = powers.executePower(power, target, args);
+                long elapsed = System.nanoTime() - start;
+                if (!handled) return false;
+                totalNanos += elapsed;
+                maxNanos = Math.max(maxNanos, elapsed);
+            }
+            started = true;
+        } finally {
+            powers.setMuted(false);
+            // Unknown power or a power that threw: no observer will clear the flag
+            if (!started) active = false;
+        }
+
+        sender.sendMessage(Component.text("Benchmarking " + power + " x" + runs
+                + " — observing for " + (OBSERVE_TICKS / 20) + "s...").color(NamedTextColor.GRAY));
+
+        final long total = totalNanos;
+        final long max = maxNanos;
+        new BukkitRunnable() {
+            int ticks = 0;
+            double msptSum = 0;
+            double msptPeak = 0;
+
+            @Override
+            public void run() {
+                double mspt = Bukkit.getAverageTickTime();
+                msptSum += mspt;
+                msptPeak = Math.max(msptPeak, mspt);
+                if (++ticks < OBSERVE_TICKS) return;
+
+                cancel();
+                active = false;
+                long blocks = powers.getBlocksChanged() - blocksBefore + blocksExploded;
+                report(sender, new Result(power, runs, String.join(" ", args), total, max,
+                        entitiesSpawned, blocks, msptBefore, msptSum / ticks, msptPeak));
+            }
+        }.runTaskTimer(plugin, 1L, 1L);
+        return true;
+    }
+
+    // ── Effect-lifetime counters ──
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntitySpawn(EntitySpawnEvent event) {
+        if (active) entitiesSpawned++;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityExplode(EntityExplodeEvent event) {
+        if (active) blocksExploded += event.blockList().size();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockExplode(BlockExplodeEvent event) {
+        if (active) blocksExploded += event.blockList().size();
+    }
+
+    // ── Reporting ──
+
+    private record Result(String power, int iterations, String args, long totalNanos, long maxNanos,
+                          long entities, long blocks, double msptBefore, double msptAvg, double msptPeak) {
+
+        long avgNanos() { return totalNanos / iterations; }
+        double msptDelta() { return msptAvg - msptBefore; }
+
+        String toCsv() {
+            return String.format(Locale.ROOT, "%d,%s,%d,\"%s\",%d,%d,%d,%d,%d,%.3f,%.3f,%.3f,%.3f%n",
+                    System.currentTimeMillis() / 1000L, power, iterations, args.replace("\"", "\"\""),
+                    totalNanos, avgNanos(), maxNanos, entities, blocks,
+                    msptBefore, msptAvg, msptPeak, msptDelta());
+        }
+    }
+
+    private void report(CommandSender sender, Result r) {
+        sender.sendMessage(Component.text("═══ Bench: " + r.power() + " x" + r.iterations() + " ═══")
+                .color(NamedTextColor.GOLD));
+        sender.sendMessage(Component.text(String.format(Locale.ROOT,
+                " Main thread: %.3f ms total, %.3f ms avg, %.3f ms max",
+                r.totalNanos() / 1e6, r.avgNanos() / 1e6, r.maxNanos() / 1e6)).color(NamedTextColor.YELLOW));
+        sender.sendMessage(Component.text(" Entities spawned: " + r.entities()
+                + "  Blocks changed: " + r.blocks()).color(NamedTextColor.YELLOW));
+        sender.sendMessage(Component.text(String.format(Locale.ROOT,
+                " MSPT: %.2f before, %.2f avg, %.2f peak (%+.2f)",
+                r.msptBefore(), r.msptAvg(), r.msptPeak(), r.msptDelta())).color(NamedTextColor.YELLOW));
+
+        String line = r.toCsv();
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                if (!Files.exists(csvFile)) {
+                    Files.writeString(csvFile, CSV_HEADER, StandardCharsets.UTF_8);
+                }
+                Files.writeString(csvFile, line, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                logger.warning("Failed to append benchmark results: " + e.getMessage());
+            }
+        });
+    }
+}
@@ -0,0 +1,204 @@
+package com.mineai;
+
+import com.destroystokyo.paper.event.entity.EntityRemoveFromWorldEvent;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Entity;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDeathEvent;
+import org.bukkit.event.entity.EntityRemoveEvent;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * Per-power main-thread cost accounting with automatic circuit breakers.
+ *
+ * Every power invocation and every follow-up tick it schedules reports its
+ * System.nanoTime cost here. Once a second the cost is folded into an exponentially
+ * decaying ms-per-second average; a power whose average crosses the trip threshold
+ * is disabled for a cooldown period, and its in-flight follow-up tasks stop themselves.
+ * Entities spawned by powers are tracked by UUID until they die, despawn or are removed;
+ * ones sitting in unloaded chunks still count, since they come back when the chunk does.
+ * All methods MUST be called on the main thread.
+ */
+public final class PowerProfiler implements Listener {
+
+    /** Rolling cost (ms of main thread per second) at which a power is tripped. */
+    private static final double TRIP_MS_PER_SECOND = 50.0;
+    /** How long a tripped power stays disabled. */
+    private static final long TRIP_COOLDOWN_MS = 60_000L;
+    /** Weight of the latest second in the rolling average (~10s horizon). */
+    private static final double DECAY_ALPHA = 0.1;
+
+    /**
+     * Aggregated statistics for one power.
+     */
+    public static final class Stats {
+        private final String power;
+        private long invocations;
+        private long followUpTicks;
+        private long totalNanos;
+        private long maxNanos;
+        private long windowNanos;
+        private double rollingMsPerSecond;
+        private long trippedUntil;
+        private int trips;
+
+        private Stats(String power) {
+            this.power = power;
+        }
+
+        public String power() { return power; }
+        public long invocations() { return invocations; }
+        public long followUpTicks() { return followUpTicks; }
+        public long totalNanos() { return totalNanos; }
+        public long maxNanos() { return maxNanos; }
+        public double rollingMsPerSecond() { return rollingMsPerSecond; }
+        public int trips() { return trips; }
+        public boolean tripped() { return trippedUntil > System.currentTimeMillis(); }
+    }
+
+    private final MineAI plugin;
+    private final Logger logger;
+    private final Map<String, Stats> stats = new HashMap<>();
+    private final Set<UUID> spawned = new HashSet<>();
+    private BukkitTask task;
+
+    public PowerProfiler(MineAI plugin) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+    }
+
+    public void start() {
+        if (task != null) return;
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::roll, 20L, 20L);
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * Record the cost of a power's initial invocation.
+     */
+    public void recordInvocation(String power, long nanos) {
+        Stats s = stats.computeIfAbsent(power, Stats::new);
+        s.invocations++;
+        add(s, nanos);
+    }
+
+    /**
+     * Record the cost of one follow-up tick scheduled by a power.
+     */
+    public void recordFollowUp(String power, long nanos) {
+        Stats s = stats.computeIfAbsent(power, Stats::new);
+        s.followUpTicks++;
+        add(s, nanos);
+    }
+
+    /**
+     * Note an entity spawned by a power.
+     */
+    public void recordSpawn(Entity entity) {
+        if (entity != null) spawned.add(entity.getUniqueId());
+    }
+
+    /**
+     * Entities spawned by powers that still exist, loaded or not.
+     */
+    public int liveSpawnedCount() {
+        return spawned.size();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onDeath(EntityDeathEvent event) {
+        spawned.remove(event.getEntity().getUniqueId());
+    }
+
+    /**
+     * Stop counting an entity once it is gone for good. One saved with its unloading chunk
+     * is still counted; a non-persistent one is discarded with the chunk, so it is not.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onRemove(EntityRemoveFromWorldEvent event) {
+        Entity entity = event.getEntity();
+        if (event.getCause() != EntityRemoveEvent.Cause.UNLOAD || !entity.isPersistent()) {
+            spawned.remove(entity.getUniqueId());
+        }
+    }
+
+    /**
+     * Whether a power's circuit breaker is currently open.
+     */
+    public boolean isTripped(String power) {
+        Stats s = stats.get(power);
+        return s != null && s.tripped();
+    }
+
+    /**
+     * Number of powers currently disabled by their circuit breaker.
+     */
+    public int trippedCount() {
+        int count = 0;
+        for (Stats s : stats.values()) {
+            if (s.tripped()) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Powers ordered by rolling cost, then total cost, highest first.
+     */
+    public List<Stats> topOffenders(int limit) {
+        List<Stats> sorted = new ArrayList<>(stats.values());
+        sorted.sort(Comparator.comparingDouble(Stats::rollingMsPerSecond)
+                .thenComparingLong(Stats::totalNanos)
+                .reversed());
+        return sorted.subList(0, Math.min(limit, sorted.size()));
+    }
+
+    /**
+     * Clear all statistics and close every breaker.
+     */
+    public void reset() {
+        stats.clear();
+    }
+
+    private static void add(Stats s, long nanos) {
+        s.totalNanos += nanos;
+        s.windowNanos += nanos;
+        if (nanos > s.maxNanos) s.maxNanos = nanos;
+    }
+
+    /**
+     * Once a second: fold the last window into the rolling average and trip breakers.
+     */
+    private void roll() {
+        long now = System.currentTimeMillis();
+        for (Stats s : stats.values()) {
+            double windowMs = s.windowNanos / 1_000_000.0;
+            s.windowNanos = 0;
+            s.rollingMsPerSecond = s.rollingMsPerSecond * (1 - DECAY_ALPHA) + windowMs * DECAY_ALPHA;
+
+            if (s.rollingMsPerSecond >= TRIP_MS_PER_SECOND && s.trippedUntil <= now) {
+                s.trippedUntil = now + TRIP_COOLDOWN_MS;
+                s.trips++;
+                logger.warning(String.format("Circuit breaker tripped for '%s' (%.1f ms/s); disabled for %ds.",
+                        s.power, s.rollingMsPerSecond, TRIP_COOLDOWN_MS / 1000));
+            }
+        }
+    }
+}
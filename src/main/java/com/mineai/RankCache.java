@@ -0,0 +1,132 @@
+package com.mineai;
+
+import com.mineai.RankManager.Rank;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Small primitive-keyed map from player UUID to rank for players who are online.
+ * Keys are stored as two parallel long arrays and values as rank ordinals, so lookups
+ * allocate nothing and no UUID or boxed objects are retained. Open addressing with
+ * linear probing and backward-shift deletion. Thread-safe.
+ */
+public final class RankCache {
+
+    private static final Rank[] RANKS = Rank.values();
+    private static final byte EMPTY = -1;
+
+    private long[] msbs;
+    private long[] lsbs;
+    private byte[] ranks;
+    private int size;
+
+    public RankCache() {
+        allocate(256);
+    }
+
+    /**
+     * @return the cached rank, or null if the player is not cached
+     */
+    public synchronized Rank get(UUID playerId) {
+        int i = indexOf(playerId.getMostSignificantBits(), playerId.getLeastSignificantBits());
+        return i < 0 ? null : RANKS[ranks[i]];
+    }
+
+    public synchronized void put(UUID playerId, Rank rank) {
+        long msb = playerId.getMostSignificantBits();
+        long lsb = playerId.getLeastSignificantBits();
+        int i = indexOf(msb, lsb);
+        if (i >= 0) {
+            ranks[i] = (byte) rank.ordinal();
+            return;
+        }
+        if ((size + 1) * 2 > ranks.length) {
+            rehash(ranks.length * 2);
+        }
+        insert(msb, lsb, (byte) rank.ordinal());
+        size++;
+    }
+
+    /**
+     * Update a player's rank only if they are already cached (online, or warmed at pre-login).
+     */
+    public synchronized void replace(UUID playerId, Rank rank) {
+        int i = indexOf(playerId.getMostSignificantBits(), playerId.getLeastSignificantBits());
+        if (i >= 0) ranks[i] = (byte) rank.ordinal();
+    }
+
+    public synchronized void remove(UUID playerId) {
+        int i = indexOf(playerId.getMostSignificantBits(), playerId.getLeastSignificantBits());
+        if (i < 0) return;
+
+        // Backward-shift deletion keeps probe chains intact without tombstones
+        int mask = ranks.length - 1;
+        int hole = i;
+        for (int j = (i + 1) & mask; ranks[j] != EMPTY; j = (j + 1) & mask) {
+            int home = hash(msbs[j], lsbs[j]) & mask;
+            boolean movable = hole <= j ? (home <= hole || home > j) : (home <= hole && home > j);
+            if (movable) {
+                msbs[hole] = msbs[j];
+                lsbs[hole] = lsbs[j];
+                ranks[hole] = ranks[j];
+                hole = j;
+            }
+        }
+        ranks[hole] = EMPTY;
+        size--;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized void clear() {
+        allocate(256);
+    }
+
+    private int indexOf(long msb, long lsb) {
+        int mask = ranks.length - 1;
+        for (int i = hash(msb, lsb) & mask; ranks[i] != EMPTY; i = (i + 1) & mask) {
+            if (msbs[i] == msb && lsbs[i] == lsb) return i;
+        }
+        return -1;
+    }
+
+    private void insert(long msb, long lsb, byte rank) {
+        int mask = ranks.length - 1;
+        int i = hash(msb, lsb) & mask;
+        while (ranks[i] != EMPTY) {
+            i = (i + 1) & mask;
+        }
+        msbs[i] = msb;
+        lsbs[i] = lsb;
+        ranks[i] = rank;
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldMsbs = msbs;
+        long[] oldLsbs = lsbs;
+        byte[] oldRanks = ranks;
+        allocate(newCapacity);
+        for (int i = 0; i < oldRanks.length; i++) {
+            if (oldRanks[i] != EMPTY) {
+                insert(oldMsbs[i], oldLsbs[i], oldRanks[i]);
+                size++;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        msbs = new long[capacity];
+        lsbs = new long[capacity];
+        ranks = new byte[capacity];
+        Arrays.fill(ranks, EMPTY);
+        size = 0;
+    }
+
+    private static int hash(long msb, long lsb) {
+        long h = (msb ^ Long.rotateLeft(lsb, 32)) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,51 @@
+package com.mineai;
+
+import com.mineai.RankManager.Rank;
+
+/**
+ * Per-rank player counts over every stored player, seeded from the rank table's header on
+ * load and kept current by {@link RankManager#setRank} / {@link RankManager#setRanks}.
+ * Holds one int per rank, whatever the number of players. Thread-safe.
+ */
+public final class RankIndex {
+
+    private final int[] counts = new int[Rank.values().length];
+
+    /**
+     * Set a rank's count (used when seeding from the table).
+     */
+    public synchronized void set(Rank rank, int count) {
+        counts[rank.ordinal()] = count;
+    }
+
+    /**
+     * Record a player's rank change.
+     *
+     * @param previous the rank before this change, or null if the player was never stored
+     */
+    public synchronized void move(Rank previous, Rank rank) {
+        if (previous == rank) return;
+        if (previous != null) {
+            counts[previous.ordinal()]--;
+        }
+        counts[rank.ordinal()]++;
+    }
+
+    /**
+     * Number of stored players holding a rank.
+     */
+    public synchronized int count(Rank rank) {
+        return counts[rank.ordinal()];
+    }
+
+    /**
+     * Number of stored players across all ranks.
+     */
+    public synchronized int total() {
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        return total;
+    }
+}
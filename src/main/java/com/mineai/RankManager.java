@@ -1,27 +1,45 @@
 package com.mineai;
 
+import com.google.gson.Gson;
+import com.mineai.model.RankSummary;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.format.TextDecoration;
 import org.bukkit.Bukkit;
-import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.scheduler.BukkitTask;
 import org.bukkit.scoreboard.Scoreboard;
 import org.bukkit.scoreboard.Team;
 
-import java.io.File;
 import java.io.IOException;
-import java.util.Arrays;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 
 /**
  * Manages the rank/hierarchy system with persistence and display formatting.
+ * Ranks live in a memory-mapped table (see {@link RankStore}); online players are cached.
  * Uses Adventure Components for all text rendering.
  */
-public final class RankManager {
+public final class RankManager implements Listener {
 
     /**
      * All available ranks ordered from lowest to highest.
@@ -59,6 +77,9 @@ public final class RankManager {
         public NamedTextColor color() { return color; }
         public String symbolPrefix() { return symbolPrefix; }
 
+        /** Share of AI attention in the request queue; higher ranks are served proportionally sooner. */
+        public int weight() { return ordinal() + 1; }
+
         /**
          * Parse a rank from a string (case-insensitive), with aliases.
          */
@@ -78,47 +99,89 @@ public final class RankManager {
                 }
             };
         }
+
+        /**
+         * Strict variant of {@link #fromString}: returns null for unrecognised names
+         * instead of falling back to PEASANT.
+         */
+        public static Rank lookup(String name) {
+            Rank rank = fromString(name);
+            if (rank == PEASANT && !name.equalsIgnoreCase("peasant")) return null;
+            return rank;
+        }
     }
 
+    /** Member names per rank included in ranks-summary.json. */
+    private static final int SUMMARY_MEMBER_LIMIT = 50;
+    private static final Gson GSON = new Gson();
+
+    private static final Component CHAT_SEPARATOR = Component.text(": ").color(NamedTextColor.GRAY);
+
     private final MineAI plugin;
     private final Logger logger;
-    private final File dataFile;
-    private final Map<UUID, Rank> playerRanks = new ConcurrentHashMap<>();
+    private final RankStore store;
+    private final RankCache onlineRanks = new RankCache();
+    private final RankIndex index = new RankIndex();
+    private final Path summaryFile;
+    private volatile boolean summaryDirty = true;
+    private BukkitTask summaryTask;
+    private final Team[] rankTeams = new Team[Rank.values().length];
+    private final Component[] prefixes = new Component[Rank.values().length];
+    private final Component[] displayComponents = new Component[Rank.values().length];
+    private final Map<UUID, Rank> teamIndex = new HashMap<>();
 
     public RankManager(MineAI plugin) {
         this.plugin = plugin;
         this.logger = plugin.getLogger();
-        this.dataFile = new File(plugin.getDataFolder(), "ranks.yml");
+        this.store = new RankStore(plugin.getDataFolder().toPath(), logger);
+        this.summaryFile = plugin.getDataFolder().toPath().resolve("ranks-summary.json");
         loadRanks();
+        store.start();
+
+        // Export the membership summary at most every 5 seconds, and only after changes
+        summaryTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::exportSummaryIfDirty, 20L, 100L);
+        rebuildComponents();
+        registerTeams();
+
+        // Warm the cache for anyone already online (plugin reload)
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            onlineRanks.put(player.getUniqueId(), storedRank(player.getUniqueId()));
+        }
     }
 
     /**
      * Get a player's rank, defaulting to PEASANT.
+     * Online players hit the in-memory cache; anyone else reads the mapped rank table.
      */
     public Rank getRank(UUID playerId) {
-        return playerRanks.getOrDefault(playerId, Rank.PEASANT);
+        Rank cached = onlineRanks.get(playerId);
+        return cached != null ? cached : storedRank(playerId);
+    }
+
+    private Rank storedRank(UUID playerId) {
+        Rank stored = store.get(playerId);
+        return stored != null ? stored : Rank.PEASANT;
     }
 
     /**
-     * Get a player's rank by name (online player lookup).
+     * Get a player's rank by name (case-insensitive, online or offline).
      */
     public Rank getRank(String playerName) {
-        Player player = Bukkit.getPlayerExact(playerName);
-        if (player != null) {
-            return getRank(player.getUniqueId());
-        }
-        // Search offline — iterate stored ranks
-        // For offline players, we'd need a name->UUID mapping; return PEASANT as fallback
-        return Rank.PEASANT;
+        UUID playerId = plugin.getNameIndex().lookup(playerName);
+        return playerId != null ? getRank(playerId) : Rank.PEASANT;
     }
 
     /**
      * Set a player's rank and update displays.
      */
     public void setRank(UUID playerId, Rank rank) {
-        playerRanks.put(playerId, rank);
-        saveRanksAsync();
+        Rank previous = store.get(playerId);
+        store.put(playerId, rank);
+        index.move(previous, rank);
+        summaryDirty = true;
 
+        // Also reaches players warmed at pre-login who have not joined yet
+        onlineRanks.replace(playerId, rank);
         Player player = Bukkit.getPlayer(playerId);
         if (player != null) {
             updatePlayerDisplay(player, rank);
@@ -126,30 +189,119 @@ public final class RankManager {
     }
 
     /**
-     * Set rank by player name (finds the online player).
+     * Set many ranks at once: the table is updated atomically, the change log gets one
+     * group write, and online players' displays are refreshed in a single pass.
+     */
+    public void setRanks(Map<UUID, Rank> ranks) {
+        if (ranks.isEmpty()) return;
+        Map<UUID, Rank> previous = new HashMap<>();
+        for (UUID playerId : ranks.keySet()) {
+            Rank stored = store.get(playerId);
+            if (stored != null) previous.put(playerId, stored);
+        }
+        store.putAll(ranks);
+        for (Map.Entry<UUID, Rank> entry : ranks.entrySet()) {
+            index.move(previous.get(entry.getKey()), entry.getValue());
+        }
+        summaryDirty = true;
+
+        for (Map.Entry<UUID, Rank> entry : ranks.entrySet()) {
+            onlineRanks.replace(entry.getKey(), entry.getValue());
+            Player player = Bukkit.getPlayer(entry.getKey());
+            if (player != null) {
+                updatePlayerDisplay(player, entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Set rank by player name (case-insensitive, online or offline).
+     *
+     * @return false if no player with that name has ever joined
      */
     public boolean setRank(String playerName, Rank rank) {
-        Player player = Bukkit.getPlayerExact(playerName);
-        if (player == null) return false;
-        setRank(player.getUniqueId(), rank);
+        UUID playerId = plugin.getNameIndex().lookup(playerName);
+        if (playerId == null) return false;
+        setRank(playerId, rank);
         return true;
     }
 
+    // ── Membership ──
+
+    /**
+     * Number of stored players holding a rank. O(1).
+     */
+    public int countRank(Rank rank) {
+        return index.count(rank);
+    }
+
+    /**
+     * Number of players with a stored rank.
+     */
+    public int storedPlayers() {
+        return index.total();
+    }
+
+    /**
+     * Names of the players holding a rank, sorted case-insensitively, skipping the first
+     * {@code offset} and returning at most {@code limit}. Players whose name was never
+     * indexed are listed by UUID. Scans the mapped table keeping only offset + limit names,
+     * so heap stays bounded whatever the rank's size; call off the main thread.
+     */
+    public List<String> memberNames(Rank rank, int offset, int limit) {
+        return memberNames(EnumSet.of(rank), offset, limit).get(rank);
+    }
+
+    /**
+     * {@link #memberNames(Rank, int, int)} for several ranks in one scan of the table.
+     */
+    private Map<Rank, List<String>> memberNames(Set<Rank> ranks, int offset, int limit) {
+        int keep = offset + limit;
+        NameIndex names = plugin.getNameIndex();
+        Map<Rank, PriorityQueue<String>> firsts = new EnumMap<>(Rank.class);
+        boolean complete;
+        do {
+            // Largest name at the head, so the queue keeps the first `keep` names
+            for (Rank rank : ranks) {
+                firsts.put(rank, new PriorityQueue<>(String.CASE_INSENSITIVE_ORDER.reversed()));
+            }
+            complete = store.forEach((playerId, rank) -> {
+                PriorityQueue<String> first = firsts.get(rank);
+                if (first == null || keep <= 0) return;
+                String name = names.nameOf(playerId);
+                first.add(name != null ? name : playerId.toString());
+                if (first.size() > keep) first.poll();
+            });
+        } while (!complete);
+
+        Map<Rank, List<String>> out = new EnumMap<>(Rank.class);
+        for (Map.Entry<Rank, PriorityQueue<String>> entry : firsts.entrySet()) {
+            List<String> sorted = new ArrayList<>(entry.getValue());
+            sorted.sort(String.CASE_INSENSITIVE_ORDER);
+            out.put(entry.getKey(), sorted.subList(Math.min(offset, sorted.size()), sorted.size()));
+        }
+        return out;
+    }
+
     /**
      * Update a player's tab list name and scoreboard team based on rank.
      */
     public void updatePlayerDisplay(Player player, Rank rank) {
-        // Tab list name with rank prefix
-        Component prefix = Component.text(rank.symbolPrefix() + "[" + rank.displayName() + "] ")
-                .color(rank.color());
-        Component displayName = prefix.append(Component.text(player.getName()).color(NamedTextColor.WHITE));
-        player.playerListName(displayName);
-        player.displayName(displayName);
+        applyDisplayName(player, rank);
 
         // Scoreboard team for sorting
         updateScoreboardTeam(player, rank);
     }
 
+    /**
+     * Tab list and display name with rank prefix.
+     */
+    private void applyDisplayName(Player player, Rank rank) {
+        Component displayName = prefix(rank).append(Component.text(player.getName()).color(NamedTextColor.WHITE));
+        player.playerListName(displayName);
+        player.displayName(displayName);
+    }
+
     /**
      * Update player display for their current rank (convenience method).
      */
@@ -161,106 +313,204 @@ public final class RankManager {
      * Build the chat format component for a player message.
      */
     public Component formatChatMessage(Player player, String message) {
-        Rank rank = getRank(player.getUniqueId());
-        Component prefix = Component.text(rank.symbolPrefix() + "[" + rank.displayName() + "] ")
-                .color(rank.color());
-        return prefix
+        return prefix(getRank(player.getUniqueId()))
                 .append(Component.text(player.getName()).color(NamedTextColor.WHITE))
-                .append(Component.text(": ").color(NamedTextColor.GRAY))
+                .append(CHAT_SEPARATOR)
                 .append(Component.text(message).color(NamedTextColor.WHITE));
     }
 
+    /**
+     * The cached "[Rank] " prefix component for a rank.
+     */
+    public Component prefix(Rank rank) {
+        return prefixes[rank.ordinal()];
+    }
+
     /**
      * Get a formatted display component for a rank (used in /ranks listing).
      */
     public Component getRankDisplayComponent(Rank rank) {
-        return Component.text(" " + rank.symbolPrefix() + "[" + rank.displayName() + "]")
-                .color(rank.color())
-                .append(Component.text(" — " + rank.name().toLowerCase())
-                        .color(NamedTextColor.GRAY));
+        return displayComponents[rank.ordinal()];
     }
 
-    // ── Scoreboard Teams ──
+    /**
+     * Precompute the per-rank components. Components are immutable, so these are shared
+     * freely; call again only if rank styling changes.
+     */
+    public void rebuildComponents() {
+        for (Rank rank : Rank.values()) {
+            prefixes[rank.ordinal()] = Component.text(rank.symbolPrefix() + "[" + rank.displayName() + "] ")
+                    .color(rank.color());
+            displayComponents[rank.ordinal()] = Component.text(" " + rank.symbolPrefix() + "[" + rank.displayName() + "]")
+                    .color(rank.color())
+                    .append(Component.text(" — " + rank.name().toLowerCase())
+                            .color(NamedTextColor.GRAY));
+        }
+    }
 
-    private void updateScoreboardTeam(Player player, Rank rank) {
-        Scoreboard scoreboard = Bukkit.getScoreboardManager().getMainScoreboard();
+    /**
+     * Re-apply tab names and teams for every online player in one pass, and drop
+     * stale entries (offline or re-ranked players) from the rank teams. Used after a reload.
+     */
+    public void resyncDisplays() {
+        Map<String, Rank> desired = new HashMap<>();
+        teamIndex.clear();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            Rank rank = getRank(player.getUniqueId());
+            desired.put(player.getName(), rank);
+            applyDisplayName(player, rank);
+            teamIndex.put(player.getUniqueId(), rank);
+        }
 
-        // Remove from all existing teams
-        for (Team team : scoreboard.getTeams()) {
-            if (team.hasEntry(player.getName())) {
-                team.removeEntry(player.getName());
+        for (Rank rank : Rank.values()) {
+            Team team = rankTeams[rank.ordinal()];
+            for (String entry : List.copyOf(team.getEntries())) {
+                if (desired.get(entry) != rank) {
+                    team.removeEntry(entry);
+                }
             }
         }
-
-        // Team name: sort order prefix + rank name (ensures proper ordering)
-        String teamName = String.format("%02d_%s", rank.ordinal(), rank.name().toLowerCase());
-        if (teamName.length() > 16) {
-            teamName = teamName.substring(0, 16); // Team name limit
+        for (Map.Entry<String, Rank> entry : desired.entrySet()) {
+            Team team = rankTeams[entry.getValue().ordinal()];
+            if (!team.hasEntry(entry.getKey())) {
+                team.addEntry(entry.getKey());
+            }
         }
+    }
+
+    // ── Scoreboard Teams ──
 
-        Team team = scoreboard.getTeam(teamName);
-        if (team == null) {
-            team = scoreboard.registerNewTeam(teamName);
+    /**
+     * Create (or adopt) one team per rank on the main scoreboard. Called once at enable.
+     */
+    private void registerTeams() {
+        Scoreboard scoreboard = Bukkit.getScoreboardManager().getMainScoreboard();
+        for (Rank rank : Rank.values()) {
+            // Team name: sort order prefix + rank name (ensures proper ordering)
+            String teamName = String.format("%02d_%s", rank.ordinal(), rank.name().toLowerCase());
+            if (teamName.length() > 16) {
+                teamName = teamName.substring(0, 16); // Team name limit
+            }
+
+            Team team = scoreboard.getTeam(teamName);
+            if (team == null) {
+                team = scoreboard.registerNewTeam(teamName);
+            }
             team.color(rank.color());
-            Component teamPrefix = Component.text(rank.symbolPrefix() + "[" + rank.displayName() + "] ")
-                    .color(rank.color());
-            team.prefix(teamPrefix);
+            team.prefix(prefix(rank));
+            rankTeams[rank.ordinal()] = team;
         }
+    }
 
+    /**
+     * Move a player between rank teams using the reverse index: touches at most two teams.
+     */
+    private void updateScoreboardTeam(Player player, Rank rank) {
+        Team team = rankTeams[rank.ordinal()];
+        Rank previous = teamIndex.put(player.getUniqueId(), rank);
+        if (previous == rank && team.hasEntry(player.getName())) return;
+        if (previous != null && previous != rank) {
+            rankTeams[previous.ordinal()].removeEntry(player.getName());
+        }
         team.addEntry(player.getName());
     }
 
     // ── Persistence ──
 
     private void loadRanks() {
-        if (!dataFile.exists()) {
-            logger.info("No ranks.yml found, starting fresh.");
-            return;
+        try {
+            int stored = store.load();
+            for (Rank rank : Rank.values()) {
+                index.set(rank, store.count(rank));
+            }
+            logger.info("Mapped rank table with " + stored + " player ranks.");
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to open rank table: " + e.getMessage(), e);
         }
+    }
 
-        YamlConfiguration config = YamlConfiguration.loadConfiguration(dataFile);
-        for (String key : config.getKeys(false)) {
-            try {
-                UUID uuid = UUID.fromString(key);
-                String rankName = config.getString(key, "PEASANT");
-                Rank rank = Rank.fromString(rankName);
-                playerRanks.put(uuid, rank);
-            } catch (IllegalArgumentException e) {
-                logger.warning("Invalid UUID in ranks.yml: " + key);
-            }
+    // ── Online cache ──
+
+    /**
+     * Warm the rank cache off the main thread before the player finishes joining. Setters
+     * replace cached entries, so a change from here on reaches the cache; one that landed
+     * between reading the table and caching it is caught by reading again.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) return;
+        UUID playerId = event.getUniqueId();
+        Rank stored = storedRank(playerId);
+        onlineRanks.put(playerId, stored);
+        Rank current = storedRank(playerId);
+        if (current != stored) {
+            onlineRanks.replace(playerId, current);
         }
-        logger.info("Loaded " + playerRanks.size() + " player ranks.");
     }
 
-    private void saveRanksAsync() {
-        // Copy the map snapshot for thread safety
-        Map<UUID, Rank> snapshot = Map.copyOf(playerRanks);
+    /**
+     * A later login step (ban, whitelist, full server) can still deny a player warmed at
+     * pre-login; they never quit, so evict them here.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onLogin(PlayerLoginEvent event) {
+        if (event.getResult() != PlayerLoginEvent.Result.ALLOWED) {
+            onlineRanks.remove(event.getPlayer().getUniqueId());
+        }
+    }
 
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            YamlConfiguration config = new YamlConfiguration();
-            for (var entry : snapshot.entrySet()) {
-                config.set(entry.getKey().toString(), entry.getValue().name());
-            }
-            try {
-                config.save(dataFile);
-            } catch (IOException e) {
-                logger.severe("Failed to save ranks: " + e.getMessage());
-            }
-        });
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        Player player = event.getPlayer();
+        onlineRanks.remove(player.getUniqueId());
+        Rank team = teamIndex.remove(player.getUniqueId());
+        if (team != null) {
+            rankTeams[team.ordinal()].removeEntry(player.getName());
+        }
     }
 
     /**
-     * Force a synchronous save (used during shutdown).
+     * Flush the change log and write a final snapshot (used during shutdown).
      */
     public void saveSync() {
-        YamlConfiguration config = new YamlConfiguration();
-        for (var entry : playerRanks.entrySet()) {
-            config.set(entry.getKey().toString(), entry.getValue().name());
+        if (summaryTask != null) {
+            summaryTask.cancel();
+            summaryTask = null;
         }
+        exportSummaryIfDirty();
+        store.close();
+    }
+
+    /**
+     * Write ranks-summary.json (atomic temp-file rename) if ranks changed since the last export.
+     */
+    private void exportSummaryIfDirty() {
+        if (!summaryDirty) return;
+        summaryDirty = false;
+
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        Set<Rank> listed = EnumSet.noneOf(Rank.class);
+        for (Rank rank : Rank.values()) {
+            int count = index.count(rank);
+            if (count == 0) continue;
+            counts.put(rank.name().toLowerCase(), count);
+            if (rank != Rank.PEASANT) listed.add(rank);
+        }
+        Map<String, List<String>> members = new LinkedHashMap<>();
+        if (!listed.isEmpty()) {
+            for (Map.Entry<Rank, List<String>> entry : memberNames(listed, 0, SUMMARY_MEMBER_LIMIT).entrySet()) {
+                members.put(entry.getKey().name().toLowerCase(), entry.getValue());
+            }
+        }
+        RankSummary summary = new RankSummary(System.currentTimeMillis() / 1000L, index.total(), counts, members);
+
+        Path temp = summaryFile.resolveSibling("ranks-summary.json.tmp");
         try {
-            config.save(dataFile);
+            Files.writeString(temp, GSON.toJson(summary), StandardCharsets.UTF_8);
+            Files.move(temp, summaryFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
         } catch (IOException e) {
-            logger.severe("Failed to save ranks on shutdown: " + e.getMessage());
+            summaryDirty = true;
+            logger.warning("Failed to write ranks-summary.json: " + e.getMessage());
         }
     }
 
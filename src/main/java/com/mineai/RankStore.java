@@ -0,0 +1,325 @@
+package com.mineai;
+
+import com.mineai.RankManager.Rank;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.logging.Logger;
+
+/**
+ * Durable rank persistence: a memory-mapped {@link RankTable} plus an append-only change log.
+ *
+ * A rank change goes into a small in-memory overlay (visible to lookups immediately) and is
+ * queued for the single writer thread, which is the only thread that writes the mapped table.
+ * Per wake-up it drains every queued change, grows the table first if the batch would take it
+ * past half full, applies the batch, appends it to ranks.log and fsyncs once (group commit).
+ * So a rank change on the main thread never waits on table growth or disk. Every so often the
+ * same thread checkpoints: it forces the table's dirty pages to disk and truncates the log.
+ * Because the log is only truncated after the table is durable, and replaying it is
+ * idempotent, the stored ranks never regress.
+ *
+ * On startup the table is mapped (nothing is parsed), a legacy ranks.yml is migrated once,
+ * and the log is replayed on top.
+ */
+public final class RankStore {
+
+    private static final int COMPACT_AFTER_CHANGES = 1000;
+    private static final long COMPACT_INTERVAL_MS = 5 * 60_000L;
+
+    private record Change(UUID playerId, Rank rank) {}
+
+    private final Logger logger;
+    private final Path tableFile;
+    private final Path legacyFile;
+    private final Path logFile;
+    private final BlockingQueue<Change> queue = new LinkedBlockingQueue<>();
+    /** Changes not yet applied to the table by the writer. */
+    private final Map<UUID, Rank> pending = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+    private RankTable table;
+    private Thread writerThread;
+    private FileChannel logChannel;
+    private int changesSinceCompact;
+    /** A batch could not be applied to the table, so the log must be kept until restart. */
+    private boolean unapplied;
+    private long lastCompact;
+
+    public RankStore(Path dataDir, Logger logger) {
+        this.logger = logger;
+        this.tableFile = dataDir.resolve("ranks.dat");
+        this.legacyFile = dataDir.resolve("ranks.yml");
+        this.logFile = dataDir.resolve("ranks.log");
+    }
+
+    /**
+     * Map the rank table, migrate ranks.yml if present, and replay the change log.
+     * Call before {@link #start()}.
+     *
+     * @return number of players stored
+     */
+    public int load() throws IOException {
+        table = RankTable.open(tableFile);
+
+        if (Files.exists(legacyFile)) {
+            migrateLegacy();
+        }
+
+        int replayed = 0;
+        if (Files.exists(logFile)) {
+            Map<UUID, Rank> changes = new LinkedHashMap<>();
+            try (BufferedReader reader = Files.newBufferedReader(logFile, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    int space = line.indexOf(' ');
+                    if (space < 0) continue; // torn final line from a crash
+                    try {
+                        changes.put(UUID.fromString(line.substring(0, space)),
+                                Rank.valueOf(line.substring(space + 1)));
+                        replayed++;
+                    } catch (IllegalArgumentException e) {
+                        logger.warning("Skipping malformed ranks.log entry: " + line);
+                    }
+                }
+            }
+            table.ensureCapacity(changes.size());
+            table.putAll(changes);
+        }
+
+        if (replayed > 0) {
+            logger.info("Replayed " + replayed + " rank changes from ranks.log.");
+        }
+        changesSinceCompact = replayed;
+        return table.size();
+    }
+
+    /**
+     * One-time import of the old YAML rank file into the table.
+     */
+    private void migrateLegacy() throws IOException {
+        YamlConfiguration config = YamlConfiguration.loadConfiguration(legacyFile.toFile());
+        Map<UUID, Rank> ranks = new LinkedHashMap<>();
+        for (String key : config.getKeys(false)) {
+            try {
+                ranks.put(UUID.fromString(key), Rank.fromString(config.getString(key, "PEASANT")));
+            } catch (IllegalArgumentException e) {
+                logger.warning("Invalid UUID in ranks.yml: " + key);
+            }
+        }
+        int migrated = ranks.size();
+        table.ensureCapacity(migrated);
+        table.putAll(ranks);
+        table.force();
+        Files.move(legacyFile, legacyFile.resolveSibling("ranks.yml.migrated"), StandardCopyOption.REPLACE_EXISTING);
+        logger.info("Migrated " + migrated + " ranks from ranks.yml to ranks.dat.");
+    }
+
+    /**
+     * Look up a stored rank: a change the writer has not applied yet, else the mapped table.
+     *
+     * @return the rank, or null if the player has never been ranked
+     */
+    public Rank get(UUID playerId) {
+        Rank unapplied = pending.get(playerId);
+        return unapplied != null ? unapplied : table.get(playerId);
+    }
+
+    /**
+     * Number of players the table holds for a rank, read from its header. Changes the
+     * writer has not applied yet are not included; call after {@link #load()}.
+     */
+    public int count(Rank rank) {
+        return table.count(rank);
+    }
+
+    /**
+     * Visit every stored player, including changes the writer has not applied yet.
+     * Scans the whole mapped table; call off the main thread.
+     *
+     * @return false if the table grew mid-scan; the visit was incomplete and should be redone
+     */
+    public boolean forEach(BiConsumer<UUID, Rank> action) {
+        Map<UUID, Rank> unapplied = new HashMap<>(pending);
+        boolean complete = table.forEach((playerId, rank) -> {
+            Rank newer = unapplied.remove(playerId);
+            action.accept(playerId, newer != null ? newer : rank);
+        });
+        if (!complete) return false;
+        unapplied.forEach(action);
+        return true;
+    }
+
+    /**
+     * Open the log and start the writer thread.
+     */
+    public void start() {
+        if (running) return;
+        try {
+            logChannel = FileChannel.open(logFile,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            logger.severe("Failed to open ranks.log; rank changes will only be saved on shutdown: " + e.getMessage());
+        }
+        lastCompact = System.currentTimeMillis();
+        running = true;
+        writerThread = new Thread(this::writeLoop, "MineAI-RankStore");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Store a rank change for the writer. Safe from any thread; O(1), no I/O.
+     */
+    public void put(UUID playerId, Rank rank) {
+        pending.put(playerId, rank);
+        queue.add(new Change(playerId, rank));
+    }
+
+    /**
+     * Store a batch of rank changes and queue them together, so the writer applies them to
+     * the table atomically and appends them with a single write and fsync.
+     */
+    public void putAll(Map<UUID, Rank> ranks) {
+        pending.putAll(ranks);
+        List<Change> changes = new ArrayList<>(ranks.size());
+        for (Map.Entry<UUID, Rank> entry : ranks.entrySet()) {
+            changes.add(new Change(entry.getKey(), entry.getValue()));
+        }
+        queue.addAll(changes);
+    }
+
+    /**
+     * Flush pending changes, checkpoint and stop the writer (used during shutdown).
+     */
+    public void close() {
+        running = false;
+        if (writerThread != null) {
+            try {
+                writerThread.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (writerThread.isAlive()) {
+                logger.warning("Rank writer did not stop in time; ranks.log will be replayed next start.");
+                return;
+            }
+        }
+        // Writer has exited (or never started): finish on this thread
+        flushQueue(new ArrayList<>());
+        compact();
+        closeLog();
+        table.close();
+    }
+
+    // ── Writer thread ──
+
+    private void writeLoop() {
+        List<Change> batch = new ArrayList<>();
+        while (running) {
+            try {
+                Change first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    flushQueue(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+
+            boolean due = changesSinceCompact >= COMPACT_AFTER_CHANGES
+                    || (changesSinceCompact > 0 && System.currentTimeMillis() - lastCompact >= COMPACT_INTERVAL_MS);
+            if (due) {
+                compact();
+            }
+        }
+    }
+
+    /**
+     * Apply everything queued (plus anything already in {@code batch}) to the table, growing
+     * it first if needed, then append the batch to the log with one write and one fsync.
+     */
+    private void flushQueue(List<Change> batch) {
+        queue.drainTo(batch);
+        if (batch.isEmpty()) return;
+
+        Map<UUID, Rank> latest = new LinkedHashMap<>();
+        StringBuilder sb = new StringBuilder(batch.size() * 48);
+        for (Change change : batch) {
+            latest.put(change.playerId(), change.rank());
+            sb.append(change.playerId()).append(' ').append(change.rank().name()).append('\n');
+        }
+        try {
+            table.ensureCapacity(latest.size());
+            table.putAll(latest);
+            // Keep newer changes queued behind this batch in the overlay
+            for (Map.Entry<UUID, Rank> entry : latest.entrySet()) {
+                pending.remove(entry.getKey(), entry.getValue());
+            }
+        } catch (IOException e) {
+            // Still logged below and served from the overlay; replayed into the table next start
+            unapplied = true;
+            logger.severe("Failed to grow ranks.dat: " + e.getMessage());
+        }
+        changesSinceCompact += batch.size();
+        batch.clear();
+
+        if (logChannel == null) return;
+        try {
+            ByteBuffer buf = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+            while (buf.hasRemaining()) {
+                logChannel.write(buf);
+            }
+            logChannel.force(false);
+        } catch (IOException e) {
+            logger.severe("Failed to append to ranks.log: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Checkpoint: force the table to disk, then truncate the log. Every logged change was
+     * applied to the table before it was logged, so nothing in the log is lost.
+     */
+    private void compact() {
+        try {
+            table.force();
+            if (logChannel != null && !unapplied) {
+                logChannel.truncate(0);
+                logChannel.force(true);
+            }
+            changesSinceCompact = 0;
+            lastCompact = System.currentTimeMillis();
+        } catch (IOException e) {
+            logger.severe("Failed to checkpoint ranks: " + e.getMessage());
+        }
+    }
+
+    private void closeLog() {
+        if (logChannel == null) return;
+        try {
+            logChannel.close();
+        } catch (IOException e) {
+            logger.warning("Failed to close ranks.log: " + e.getMessage());
+        }
+        logChannel = null;
+    }
+}
@@ -0,0 +1,457 @@
+package com.mineai;
+
+import com.mineai.RankManager.Rank;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Fixed-width, memory-mapped rank table keyed by player UUID.
+ *
+ * Layout (little-endian):
+ *   header  128 bytes magic, version, capacity, size, player count per rank ordinal
+ *   slot    32 bytes  UUID most-significant long, least-significant long, rank ordinal byte
+ *
+ * Open addressing with linear probing on the UUID's two longs; the nil UUID marks an empty
+ * slot. Slots are 32 bytes so one never straddles a page. Nothing is parsed on open: lookups
+ * read the mapping directly and per-rank counts are kept in the header, so startup cost and
+ * heap do not grow with the number of players who have ever joined. A version 1 table
+ * (32-byte header, no counts) is rewritten once into the next generation on open. Thread-safe.
+ *
+ * The table never grows on its own: its single writer calls {@link #ensureCapacity} before
+ * inserting. Growing writes the doubled table to the next generation file (ranks.dat.1,
+ * ranks.dat.2, ...) and stamps its magic only once every slot is durable, so a crash leaves
+ * either the old or the new table valid. No mapped file is ever moved or replaced (which
+ * Windows refuses); superseded generations are deleted when possible, or on the next open.
+ */
+public final class RankTable implements AutoCloseable {
+
+    private static final int MAGIC = 0x4D524E4B; // "MRNK"
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 128;
+    private static final int LEGACY_HEADER_SIZE = 32;
+    private static final int SLOT_SIZE = 32;
+    private static final int INITIAL_CAPACITY = 1024;
+    /** Slots visited per read-lock hold in {@link #forEach}. */
+    private static final int SCAN_CHUNK = 4096;
+
+    private static final Rank[] RANKS = Rank.values();
+
+    private static final int OFF_CAPACITY = 8;
+    private static final int OFF_SIZE = 12;
+    /** One int per rank ordinal; room for 28 ranks. */
+    private static final int OFF_COUNTS = 16;
+
+    private final Path base;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private int generation;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int capacity;
+    private int size;
+
+    private RankTable(Path base) {
+        this.base = base;
+    }
+
+    /**
+     * Open (or create) the table at the given path, picking up the newest valid generation.
+     */
+    public static RankTable open(Path base) throws IOException {
+        RankTable table = new RankTable(base);
+        int newest = -1;
+        for (int generation : generations(base)) {
+            if (generation > newest && isComplete(generationFile(base, generation))) newest = generation;
+        }
+
+        if (newest >= 0) {
+            Path file = generationFile(base, newest);
+            table.generation = newest;
+            table.map(file);
+            int version = table.buffer.getInt(4);
+            if (version != VERSION && version != 1) {
+                table.close();
+                throw new IOException("Not a MineAI rank table (bad magic/version): " + file);
+            }
+            table.capacity = table.buffer.getInt(OFF_CAPACITY);
+            table.size = table.buffer.getInt(OFF_SIZE);
+            if (version == 1) {
+                table.rewrite(table.capacity, LEGACY_HEADER_SIZE);
+            }
+        } else {
+            // An unstamped file is an interrupted creation and is recreated; anything else is not ours
+            ByteBuffer header = readHeader(base);
+            if (header != null && header.getInt(0) != 0) {
+                throw new IOException("Not a MineAI rank table (bad magic/version): " + base);
+            }
+            writeEmpty(base, INITIAL_CAPACITY);
+            table.map(base);
+            table.capacity = INITIAL_CAPACITY;
+            table.size = 0;
+        }
+        table.deleteSuperseded();
+        return table;
+    }
+
+    /**
+     * Look up a player's stored rank.
+     *
+     * @return the rank, or null if the player has never been ranked
+     */
+    public Rank get(UUID playerId) {
+        long msb = playerId.getMostSignificantBits();
+        long lsb = playerId.getLeastSignificantBits();
+        lock.readLock().lock();
+        try {
+            int slot = find(buffer, capacity, msb, lsb);
+            if (slot < 0) return null;
+            return decode(buffer.get(offset(slot) + 16));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of stored players holding a rank. O(1): read from the header.
+     */
+    public int count(Rank rank) {
+        lock.readLock().lock();
+        try {
+            return buffer.getInt(OFF_COUNTS + rank.ordinal() * 4);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Store a player's rank. The write lands in the page cache and is made durable by
+     * {@link #force()}. The caller must have made room with {@link #ensureCapacity}.
+     */
+    public void put(UUID playerId, Rank rank) throws IOException {
+        lock.writeLock().lock();
+        try {
+            store(playerId, rank);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Store several ranks under one lock acquisition, so readers see all of them or none.
+     */
+    public void putAll(Map<UUID, Rank> ranks) throws IOException {
+        lock.writeLock().lock();
+        try {
+            for (Map.Entry<UUID, Rank> entry : ranks.entrySet()) {
+                store(entry.getKey(), entry.getValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Grow (doubling as often as needed) so that {@code additional} more players keep the
+     * table at most half full. Lookups continue while the new generation is written; only
+     * the final swap takes the write lock. Call only from the table's single writer.
+     */
+    public void ensureCapacity(int additional) throws IOException {
+        int needed;
+        int newCapacity;
+        lock.readLock().lock();
+        try {
+            needed = size + additional;
+            newCapacity = capacity;
+            while ((long) needed * 2 > newCapacity) newCapacity *= 2;
+            if (newCapacity == capacity) return;
+        } finally {
+            lock.readLock().unlock();
+        }
+        rewrite(newCapacity, HEADER_SIZE);
+    }
+
+    /**
+     * Number of players stored.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Visit every stored player. The read lock is held for one chunk of slots at a time, so
+     * a whole-table scan never holds up lookups or the writer for long. The action must not
+     * write back.
+     *
+     * @return false if the table grew mid-scan; the visit was incomplete and should be redone
+     */
+    public boolean forEach(BiConsumer<UUID, Rank> action) {
+        int startGeneration;
+        lock.readLock().lock();
+        try {
+            startGeneration = generation;
+        } finally {
+            lock.readLock().unlock();
+        }
+        for (int from = 0; ; from += SCAN_CHUNK) {
+            lock.readLock().lock();
+            try {
+                if (generation != startGeneration) return false;
+                if (from >= capacity) return true;
+                for (int i = from, end = Math.min(capacity, from + SCAN_CHUNK); i < end; i++) {
+                    int off = offset(i);
+                    long msb = buffer.getLong(off);
+                    long lsb = buffer.getLong(off + 8);
+                    if (msb == 0 && lsb == 0) continue;
+                    action.accept(new UUID(msb, lsb), decode(buffer.get(off + 16)));
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Flush dirty pages to disk.
+     */
+    public void force() {
+        lock.readLock().lock();
+        try {
+            buffer.force();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            if (buffer != null) buffer.force();
+            if (channel != null) channel.close();
+        } catch (IOException ignored) {
+        } finally {
+            buffer = null;
+            channel = null;
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ── Internals (callers hold the lock) ──
+
+    private void store(UUID playerId, Rank rank) throws IOException {
+        long msb = playerId.getMostSignificantBits();
+        long lsb = playerId.getLeastSignificantBits();
+        int slot = find(buffer, capacity, msb, lsb);
+        if (slot >= 0) {
+            Rank previous = decode(buffer.get(offset(slot) + 16));
+            if (previous == rank) return;
+            buffer.put(offset(slot) + 16, (byte) rank.ordinal());
+            adjustCount(buffer, previous, -1);
+            adjustCount(buffer, rank, 1);
+            return;
+        }
+        if (size + 1 >= capacity) {
+            throw new IOException("Rank table is full; ensureCapacity was not called");
+        }
+        insert(buffer, capacity, msb, lsb, (byte) rank.ordinal());
+        adjustCount(buffer, rank, 1);
+        size++;
+        buffer.putInt(OFF_SIZE, size);
+    }
+
+    private void map(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Copy every slot into a new generation of the given capacity (recounting ranks on the
+     * way), then switch to it. Runs on the single writer, so holding only the read lock
+     * during the copy is enough.
+     *
+     * @param sourceHeader header size of the currently mapped file (differs for version 1)
+     */
+    private void rewrite(int newCapacity, int sourceHeader) throws IOException {
+        int nextGeneration = generation + 1;
+        Path nextFile = generationFile(base, nextGeneration);
+        try (FileChannel nextChannel = FileChannel.open(nextFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer next = nextChannel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    HEADER_SIZE + (long) newCapacity * SLOT_SIZE);
+            next.order(ByteOrder.LITTLE_ENDIAN);
+            lock.readLock().lock();
+            try {
+                for (int i = 0; i < capacity; i++) {
+                    int off = sourceHeader + i * SLOT_SIZE;
+                    long msb = buffer.getLong(off);
+                    long lsb = buffer.getLong(off + 8);
+                    if (msb == 0 && lsb == 0) continue;
+                    byte rank = buffer.get(off + 16);
+                    insert(next, newCapacity, msb, lsb, rank);
+                    adjustCount(next, decode(rank), 1);
+                }
+                next.putInt(OFF_SIZE, size);
+            } finally {
+                lock.readLock().unlock();
+            }
+            stamp(next, newCapacity);
+        }
+
+        lock.writeLock().lock();
+        try {
+            channel.close();
+            generation = nextGeneration;
+            map(nextFile);
+            capacity = newCapacity;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        deleteSuperseded();
+    }
+
+    private static void adjustCount(MappedByteBuffer buf, Rank rank, int delta) {
+        int off = OFF_COUNTS + rank.ordinal() * 4;
+        buf.putInt(off, buf.getInt(off) + delta);
+    }
+
+    /**
+     * Create an empty table file in place; its magic is written last.
+     */
+    private static void writeEmpty(Path path, int capacity) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * SLOT_SIZE);
+            buf.order(ByteOrder.LITTLE_ENDIAN);
+            buf.putInt(OFF_SIZE, 0);
+            stamp(buf, capacity);
+        }
+    }
+
+    /**
+     * Make the slots durable, then write and force the header, so a file only carries the
+     * magic once its contents are complete.
+     */
+    private static void stamp(MappedByteBuffer buf, int capacity) {
+        buf.putInt(OFF_CAPACITY, capacity);
+        buf.force();
+        buf.putInt(4, VERSION);
+        buf.putInt(0, MAGIC);
+        buf.force();
+    }
+
+    private static boolean isComplete(Path path) throws IOException {
+        ByteBuffer header = readHeader(path);
+        if (header == null || header.getInt(0) != MAGIC) return false;
+        int headerSize = header.getInt(4) == 1 ? LEGACY_HEADER_SIZE : HEADER_SIZE;
+        return Files.size(path) >= headerSize + (long) header.getInt(OFF_CAPACITY) * SLOT_SIZE;
+    }
+
+    /**
+     * @return the start of the file's header (magic, version, capacity, size), or null if the
+     *         file is missing or too short
+     */
+    private static ByteBuffer readHeader(Path path) throws IOException {
+        if (!Files.isRegularFile(path) || Files.size(path) < LEGACY_HEADER_SIZE) return null;
+        ByteBuffer header = ByteBuffer.allocate(LEGACY_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (header.hasRemaining()) {
+                if (ch.read(header) < 0) return null;
+            }
+        }
+        return header;
+    }
+
+    /**
+     * Generation numbers present next to the base file: 0 for the base itself, n for base.n.
+     */
+    private static List<Integer> generations(Path base) throws IOException {
+        List<Integer> found = new ArrayList<>();
+        if (Files.exists(base)) found.add(0);
+        String prefix = base.getFileName() + ".";
+        Path dir = base.toAbsolutePath().getParent();
+        try (DirectoryStream<Path> siblings = Files.newDirectoryStream(dir, prefix + "*")) {
+            for (Path sibling : siblings) {
+                String suffix = sibling.getFileName().toString().substring(prefix.length());
+                if (!suffix.isEmpty() && suffix.chars().allMatch(Character::isDigit) && suffix.length() < 10) {
+                    found.add(Integer.parseInt(suffix));
+                }
+            }
+        }
+        return found;
+    }
+
+    private static Path generationFile(Path base, int generation) {
+        return generation == 0 ? base : base.resolveSibling(base.getFileName() + "." + generation);
+    }
+
+    /**
+     * Delete every other generation (and a leftover temp file from older versions). A file
+     * that is still mapped cannot be deleted on Windows; it is retried on the next open.
+     */
+    private void deleteSuperseded() {
+        try {
+            Files.deleteIfExists(base.resolveSibling(base.getFileName() + ".tmp"));
+            for (int other : generations(base)) {
+                if (other != generation) Files.deleteIfExists(generationFile(base, other));
+            }
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static int find(MappedByteBuffer buf, int capacity, long msb, long lsb) {
+        int mask = capacity - 1;
+        for (int i = hash(msb, lsb) & mask, probes = 0; probes < capacity; i = (i + 1) & mask, probes++) {
+            int off = offset(i);
+            long m = buf.getLong(off);
+            long l = buf.getLong(off + 8);
+            if (m == msb && l == lsb) return i;
+            if (m == 0 && l == 0) return -1;
+        }
+        return -1;
+    }
+
+    private static void insert(MappedByteBuffer buf, int capacity, long msb, long lsb, byte rank) {
+        int mask = capacity - 1;
+        int i = hash(msb, lsb) & mask;
+        while (buf.getLong(offset(i)) != 0 || buf.getLong(offset(i) + 8) != 0) {
+            i = (i + 1) & mask;
+        }
+        int off = offset(i);
+        buf.put(off + 16, rank);
+        buf.putLong(off + 8, lsb);
+        buf.putLong(off, msb);
+    }
+
+    private static int hash(long msb, long lsb) {
+        long h = (msb ^ Long.rotateLeft(lsb, 32)) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static int offset(int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    private static Rank decode(byte ordinal) {
+        return ordinal >= 0 && ordinal < RANKS.length ? RANKS[ordinal] : Rank.PEASANT;
+    }
+}
@@ -2,69 +2,701 @@ package com.mineai;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import com.mineai.RankManager.Rank;
 import com.mineai.model.AiRequest;
+import com.mineai.model.Exchange;
+import com.mineai.model.RequestCancellation;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.TextDecoration;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
 
-import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 /**
- * Handles writing AI request JSON files asynchronously.
+ * Queues AI requests and writes them to JSON files asynchronously.
  * Uses atomic file writes (write-to-temp then rename) to prevent partial reads.
+ *
+ * Admission control: every submitted request stays in a bounded in-flight table until its
+ * response arrives. When the table is full, a player whose latest request is still queued
+ * has it replaced by their newest message (collapsed); anyone else, including a player whose
+ * request was already released to the backend, is turned away.
+ * Observed backend latency and completion rate give players an estimated wait, and
+ * {@link #backlogStretch()} lets the /ai cooldown lengthen as the backlog grows.
+ *
+ * Fair scheduling: admitted requests wait in a weighted fair queue and are released to the
+ * backend in batches, keeping at most RELEASE_WINDOW unanswered files in requests/. Each
+ * request is tagged with a virtual finish time (the player's previous tag, or the queue's
+ * virtual clock if later, plus 1 / rank weight), and the lowest tag is released first. A
+ * chatty player only pushes their own tags back, and high ranks advance faster without
+ * ever starving anyone.
+ *
+ * Tracking: each request's journey is timed per {@link Stage} into latency histograms.
+ * Released requests carry a deadline checked once a second; on the first timeout the
+ * player gets the configured fallback message and the request is re-sent, on the second
+ * it is dropped.
+ *
+ * Duplicate suppression: every admitted message's SimHash is kept in a {@link DuplicateIndex}
+ * for {@code requests.duplicate-window-seconds}. A new message within
+ * {@code requests.duplicate-distance} bits of a pending one, from anyone, is not admitted;
+ * the pending request's count goes up instead, and the backend sees it if the request is
+ * still queued. Messages of fewer than MIN_FUZZY_WORDS words must match exactly.
+ *
+ * Cancellation: when a player quits, their unanswered requests leave the table. Released
+ * ones get a {@code <id>.cancelled} tombstone for the backend and any late response to them
+ * is dropped. With {@code requests.on-quit: keep} the requests are parked instead and
+ * queued again under new ids if the player rejoins within {@code requests.keep-minutes};
+ * the old ids stay cancelled. Request files and tombstones are written by one ordered
+ * background thread, so a file never lands before an earlier withdrawal of it.
  */
 public final class RequestManager {
 
     private static final int MAX_MESSAGE_LENGTH = 500;
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
 
+    /** Requests awaiting a response before new ones are collapsed or rejected. */
+    private static final int MAX_IN_FLIGHT = 32;
+    /** Released-but-unanswered requests the backend may hold at once. */
+    private static final int RELEASE_WINDOW = 8;
+    /** Cooldown multiplier when the in-flight table is full (scales linearly from 1). */
+    private static final double MAX_STRETCH = 4.0;
+    /** Weight of the latest sample in the latency and completion-gap averages. */
+    private static final double EMA_ALPHA = 0.2;
+    /** Shorter messages only count as duplicates when identical after normalization. */
+    private static final int MIN_FUZZY_WORDS = 3;
+
+    /**
+     * Stages of a request's life, each timed from the end of the previous one.
+     */
+    public enum Stage {
+        /** Waiting in the fair queue until released to requests/. */
+        QUEUED,
+        /** Released until the backend's watcher picks the file up. */
+        PICKED_UP,
+        /** Picked up until the response file is read. */
+        ANSWERED,
+        /** Response read until its commands have run on the main thread. */
+        EXECUTED
+    }
+
+    /**
+     * Outcome of submitting a request.
+     */
+    public enum Outcome { ACCEPTED, COLLAPSED, DUPLICATE, REJECTED, EMPTY }
+
+    /**
+     * Admission decision plus an estimated wait in seconds (-1 if nothing observed yet).
+     */
+    public record Admission(Outcome outcome, long etaSeconds) {}
+
+    /**
+     * A request held back while its player is offline.
+     */
+    private record Parked(InFlight entry, long parkedNanos) {}
+
+    /**
+     * An in-flight request as saved to request-queue.json across a restart.
+     */
+    private record Saved(String id, UUID playerId, String playerName, String rank, String message,
+                         long timestamp, int count, List<String> askers, boolean released) {}
+
+    private static final class InFlight {
+        final String id;
+        final UUID playerId;
+        final String playerName;
+        final String rank;
+        final long submittedNanos;
+        final long timestamp;
+        final double finishTag;
+        String message;
+        int count = 1;
+        /** Other players whose near-duplicates were merged in, in order. */
+        final List<String> askers = new ArrayList<>(0);
+        boolean released;
+        long releasedNanos;
+        long pickedUpNanos;
+        long deadlineNanos;
+        boolean retried;
+
+        InFlight(String id, Player player, Rank rank, String message, double finishTag) {
+            this(id, player.getUniqueId(), player.getName(), rank.name().toLowerCase(), message, finishTag,
+                    System.currentTimeMillis() / 1000L);
+        }
+
+        InFlight(String id, UUID playerId, String playerName, String rank, String message, double finishTag,
+                 long timestamp) {
+            this.id = id;
+            this.playerId = playerId;
+            this.playerName = playerName;
+            this.rank = rank;
+            this.message = message;
+            this.finishTag = finishTag;
+            this.submittedNanos = System.nanoTime();
+            this.timestamp = timestamp;
+        }
+
+        AiRequest toRequest() {
+            return toRequest(null);
+        }
+
+        AiRequest toRequest(List<Exchange> history) {
+            return new AiRequest(id, playerName, rank, message, timestamp, count,
+                    askers.isEmpty() ? null : List.copyOf(askers), history);
+        }
+    }
+
     private final MineAI plugin;
     private final Logger logger;
     private final Path requestDir;
+    private final Path queueFile;
+    private final Map<String, InFlight> inFlight = new LinkedHashMap<>();
+    private final Map<UUID, InFlight> latestByPlayer = new HashMap<>();
+    private final PriorityQueue<InFlight> queued = new PriorityQueue<>(
+            Comparator.comparingDouble((InFlight f) -> f.finishTag).thenComparingLong(f -> f.submittedNanos));
+    private final Map<UUID, Double> lastFinishTag = new HashMap<>();
+    private double virtualTime;
+    private int released;
+    private double avgLatencyNanos;
+    private double avgGapNanos;
+    private long lastCompletion;
+    private final Map<Stage, LatencyHistogram> histograms = new EnumMap<>(Stage.class);
+    private final DuplicateIndex<InFlight> recent = new DuplicateIndex<>();
+    private long timeouts;
+    private long retries;
+    private long duplicates;
+    private final Map<UUID, List<Parked>> parked = new HashMap<>();
+    /** Cancelled released request ids, by cancellation time, so late responses can be dropped. */
+    private final Map<String, Long> cancelled = new HashMap<>();
+    /** Request ids answered or given up on, by time, so a second or late answer can be dropped. */
+    private final Map<String, Long> closed = new HashMap<>();
+    private long cancellations;
+    private final ExecutorService io = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "MineAI-Requests");
+        t.setDaemon(true);
+        return t;
+    });
+    private BukkitTask releaseTask;
+    private BukkitTask pickupTask;
 
     public RequestManager(MineAI plugin) {
         this.plugin = plugin;
         this.logger = plugin.getLogger();
         this.requestDir = plugin.getDataFolder().toPath().resolve("requests");
+        this.queueFile = plugin.getDataFolder().toPath().resolve("request-queue.json");
         ensureDirectories();
+        for (Stage stage : Stage.values()) {
+            histograms.put(stage, new LatencyHistogram());
+        }
+        loadQueue();
+    }
+
+    /**
+     * Start releasing queued requests and checking deadlines once a second, and watching
+     * for the backend picking released files up.
+     */
+    public void start() {
+        if (releaseTask != null) return;
+        releaseTask = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 20L, 20L);
+        pickupTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::checkPickups, 20L, 20L);
+    }
+
+    /**
+     * Stop the timers, finish pending file writes and save every unanswered request to
+     * request-queue.json, so queued requests survive a restart or reload and late answers
+     * to released ones still match.
+     */
+    public void stop() {
+        if (releaseTask != null) {
+            releaseTask.cancel();
+            releaseTask = null;
+        }
+        if (pickupTask != null) {
+            pickupTask.cancel();
+            pickupTask = null;
+        }
+        io.shutdown();
+        try {
+            io.awaitTermination(3, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        saveQueue();
     }
 
     /**
-     * Write a player's request to a JSON file, asynchronously.
+     * Admit a player's request into the fair queue.
      */
-    public void submitRequest(Player player, String message) {
+    public synchronized Admission submitRequest(Player player, String message) {
         String sanitized = sanitizeMessage(message);
         if (sanitized.isEmpty()) {
-            return;
+            return new Admission(Outcome.EMPTY, 0);
+        }
+
+        Rank rank = plugin.getRankManager().getRank(player.getUniqueId());
+        long now = System.nanoTime();
+        long window = duplicateWindowNanos();
+        recent.expire(now - window);
+        DuplicateIndex.Fingerprint fingerprint = DuplicateIndex.fingerprint(sanitized);
+        if (window > 0) {
+            int distance = fingerprint.words() < MIN_FUZZY_WORDS
+                    ? 0 : plugin.getConfig().getInt("requests.duplicate-distance", DuplicateIndex.MAX_DISTANCE);
+            // Only fold into a queued request of the same rank: nobody's request loses its
+            // priority, and the merged asker still reaches the backend in the request file
+            String rankName = rank.name().toLowerCase();
+            InFlight original = distance < 0 ? null : recent.find(fingerprint.hash(), distance,
+                    candidate -> !candidate.released && candidate.rank.equals(rankName));
+            if (original != null) {
+                original.count++;
+                if (!original.playerId.equals(player.getUniqueId()) && !original.askers.contains(player.getName())) {
+                    original.askers.add(player.getName());
+                }
+                duplicates++;
+                return new Admission(Outcome.DUPLICATE, estimateWaitSeconds(inFlight.size()));
+            }
         }
 
-        String rankName = plugin.getRankManager()
-                .getRank(player.getUniqueId())
-                .name()
-                .toLowerCase();
+        Outcome outcome;
+        InFlight admitted;
+        if (inFlight.size() < MAX_IN_FLIGHT) {
+            double start = Math.max(virtualTime, lastFinishTag.getOrDefault(player.getUniqueId(), 0.0));
+            double finish = start + 1.0 / rank.weight();
+            lastFinishTag.put(player.getUniqueId(), finish);
 
-        String requestId = UUID.randomUUID().toString();
-        AiRequest request = new AiRequest(
-                requestId,
-                player.getName(),
-                rankName,
-                sanitized,
-                System.currentTimeMillis() / 1000L
-        );
+            InFlight entry = new InFlight(UUID.randomUUID().toString(), player, rank, sanitized, finish);
+            inFlight.put(entry.id, entry);
+            latestByPlayer.put(player.getUniqueId(), entry);
+            queued.add(entry);
+            admitted = entry;
+            outcome = Outcome.ACCEPTED;
+        } else {
+            InFlight previous = latestByPlayer.get(player.getUniqueId());
+            if (previous == null || previous.released) {
+                // A released request may already be in the backend's hands; never rewrite it
+                return new Admission(Outcome.REJECTED, estimateWaitSeconds(inFlight.size()));
+            }
+            // Replace the player's queued message; it keeps its id and place in the queue
+            previous.message = sanitized;
+            recent.remove(previous);
+            admitted = previous;
+            outcome = Outcome.COLLAPSED;
+        }
+        if (window > 0) {
+            recent.add(fingerprint.hash(), admitted, now);
+        }
 
-        // Write async to avoid blocking the main thread
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+        releaseBatch();
+        return new Admission(outcome, estimateWaitSeconds(inFlight.size()));
+    }
+
+    /**
+     * Mark a request answered. Called on the main thread before the response runs, so a
+     * response is only acted on if this claims its request first.
+     *
+     * @param requestId   the response's requestId, or its file name if it carried none
+     * @param explicitId  whether the id came from the response body; if not and it is unknown
+     *                    (and was never answered), the player's oldest released request is
+     *                    completed instead
+     * @param answeredNanos System.nanoTime when the response file was read
+     * @return the request that was completed, or null if it was not in flight
+     */
+    public synchronized AiRequest complete(String requestId, String playerName, boolean explicitId, long answeredNanos) {
+        InFlight entry = inFlight.remove(requestId);
+        if (entry == null) {
+            if (explicitId || closed.containsKey(requestId)) return null;
+            for (InFlight candidate : inFlight.values()) {
+                if (candidate.released && candidate.playerName.equalsIgnoreCase(playerName)) {
+                    entry = candidate;
+                    break;
+                }
+            }
+            if (entry == null) return null;
+            inFlight.remove(entry.id);
+        }
+        forget(entry);
+
+        long now = System.nanoTime();
+        closed.put(entry.id, now);
+        if (entry.released) {
+            long pickedUp = entry.pickedUpNanos != 0 ? entry.pickedUpNanos : entry.releasedNanos;
+            if (entry.pickedUpNanos == 0) {
+                // Answered before the pickup check noticed; count pickup as instant
+                histograms.get(Stage.PICKED_UP).record(0);
+            }
+            histograms.get(Stage.ANSWERED).record(Math.max(0, answeredNanos - pickedUp));
+        }
+        histograms.get(Stage.EXECUTED).record(Math.max(0, now - answeredNanos));
+
+        double latency = now - entry.submittedNanos;
+        avgLatencyNanos = avgLatencyNanos == 0 ? latency : avgLatencyNanos * (1 - EMA_ALPHA) + latency * EMA_ALPHA;
+        if (lastCompletion != 0) {
+            double gap = now - lastCompletion;
+            avgGapNanos = avgGapNanos == 0 ? gap : avgGapNanos * (1 - EMA_ALPHA) + gap * EMA_ALPHA;
+        }
+        lastCompletion = now;
+
+        releaseBatch();
+        return entry.toRequest();
+    }
+
+    /**
+     * Withdraw a player's unanswered requests, e.g. because they left. Depending on
+     * {@code requests.on-quit} they are either dropped or parked for {@link #restoreFor}.
+     */
+    public synchronized void cancelFor(UUID playerId) {
+        boolean keep = "keep".equalsIgnoreCase(plugin.getConfig().getString("requests.on-quit", "cancel"));
+        long now = System.nanoTime();
+        var it = inFlight.values().iterator();
+        while (it.hasNext()) {
+            InFlight entry = it.next();
+            if (!entry.playerId.equals(playerId)) continue;
+            it.remove();
+            boolean wasReleased = entry.released;
+            forget(entry);
+            cancellations++;
+            if (wasReleased) {
+                cancelled.put(entry.id, now);
+                tombstone(entry);
+            }
+            if (keep) {
+                parked.computeIfAbsent(playerId, k -> new ArrayList<>()).add(new Parked(entry, now));
+            }
+        }
+        lastFinishTag.remove(playerId);
+        releaseBatch();
+    }
+
+    /**
+     * Queue a rejoining player's parked requests again. Each gets a new id: the old one
+     * stays cancelled, so an answer the backend still sends to it is dropped rather than
+     * acted on alongside the answer to the restored request. Restores are admitted like new
+     * requests: those that do not fit under MAX_IN_FLIGHT are dropped with the give-up message.
+     */
+    public synchronized void restoreFor(Player player) {
+        List<Parked> held = parked.remove(player.getUniqueId());
+        if (held == null) return;
+
+        long cutoff = System.nanoTime() - keepNanos();
+        Rank rank = plugin.getRankManager().getRank(player.getUniqueId());
+        int restored = 0;
+        int dropped = 0;
+        for (Parked p : held) {
+            if (p.parkedNanos() - cutoff < 0) continue;
+            if (inFlight.size() >= MAX_IN_FLIGHT) {
+                dropped++;
+                continue;
+            }
+            double start = Math.max(virtualTime, lastFinishTag.getOrDefault(player.getUniqueId(), 0.0));
+            double finish = start + 1.0 / rank.weight();
+            lastFinishTag.put(player.getUniqueId(), finish);
+
+            InFlight entry = new InFlight(UUID.randomUUID().toString(), player, rank, p.entry().message, finish);
+            entry.count = p.entry().count;
+            entry.askers.addAll(p.entry().askers);
+            inFlight.put(entry.id, entry);
+            latestByPlayer.put(player.getUniqueId(), entry);
+            queued.add(entry);
+            restored++;
+        }
+        if (restored > 0) {
+            notifyPlayer(player.getUniqueId(), plugin.getConfig().getString("requests.restored-message",
+                    "MineAI remembers your unanswered prayer."));
+            releaseBatch();
+        }
+        if (dropped > 0) {
+            notifyPlayer(player.getUniqueId(), plugin.getConfig().getString("requests.give-up-message",
+                    "MineAI did not answer. Perhaps ask again later."));
+            logger.info("Dropped " + dropped + " parked request(s) from " + player.getName() + ": queue is full.");
+        }
+    }
+
+    /**
+     * The player who made an unanswered request, or null if it is not in flight.
+     */
+    public synchronized UUID playerFor(String requestId) {
+        InFlight entry = inFlight.get(requestId);
+        return entry != null ? entry.playerId : null;
+    }
+
+    /**
+     * Whether a response to this request id should be dropped because the request was cancelled.
+     */
+    public synchronized boolean isCancelled(String requestId) {
+        return cancelled.containsKey(requestId);
+    }
+
+    /**
+     * Whether this request id was already answered or given up on, so another answer to it
+     * is a duplicate (e.g. to both the original and the retried request file) or too late.
+     */
+    public synchronized boolean isClosed(String requestId) {
+        return closed.containsKey(requestId);
+    }
+
+    /**
+     * Requests withdrawn because their player left.
+     */
+    public synchronized long cancellations() {
+        return cancellations;
+    }
+
+    /**
+     * Number of requests awaiting a response (queued or released).
+     */
+    public synchronized int inFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * Number of admitted requests not yet released to the backend.
+     */
+    public synchronized int queuedCount() {
+        return queued.size();
+    }
+
+    /**
+     * Cooldown multiplier for the current backlog: 1 when idle, up to MAX_STRETCH when full.
+     */
+    public synchronized double backlogStretch() {
+        double load = Math.min(1.0, (double) inFlight.size() / MAX_IN_FLIGHT);
+        return 1.0 + (MAX_STRETCH - 1.0) * load;
+    }
+
+    /**
+     * Latency histogram for one stage.
+     */
+    public LatencyHistogram histogram(Stage stage) {
+        return histograms.get(stage);
+    }
+
+    /**
+     * Requests whose deadline passed at least once.
+     */
+    public synchronized long timeouts() {
+        return timeouts;
+    }
+
+    /**
+     * Requests re-sent after a timeout.
+     */
+    public synchronized long retries() {
+        return retries;
+    }
+
+    /**
+     * Requests merged into an earlier near-duplicate instead of being admitted.
+     */
+    public synchronized long duplicates() {
+        return duplicates;
+    }
+
+    /**
+     * Number of released requests awaiting a response.
+     */
+    public synchronized int releasedCount() {
+        return released;
+    }
+
+    private synchronized void tick() {
+        long now = System.nanoTime();
+        checkDeadlines(now);
+        expireCancellations(now);
+        releaseBatch();
+    }
+
+    /**
+     * Forget cancellations no response can still be on its way for, and parked requests
+     * whose player did not come back in time.
+     */
+    private void expireCancellations(long now) {
+        long answerCutoff = now - 2 * timeoutNanos();
+        cancelled.values().removeIf(at -> at - answerCutoff < 0);
+        closed.values().removeIf(at -> at - answerCutoff < 0);
+
+        long keepCutoff = now - keepNanos();
+        parked.values().removeIf(list -> {
+            list.removeIf(p -> p.parkedNanos() - keepCutoff < 0);
+            return list.isEmpty();
+        });
+    }
+
+    /**
+     * Release queued requests in fair-share order until the backend holds RELEASE_WINDOW.
+     */
+    private synchronized void releaseBatch() {
+        while (released < RELEASE_WINDOW && !queued.isEmpty()) {
+            InFlight next = queued.poll();
+            virtualTime = Math.max(virtualTime, next.finishTag);
+            next.released = true;
+            next.releasedNanos = System.nanoTime();
+            next.deadlineNanos = next.releasedNanos + timeoutNanos();
+            released++;
+            histograms.get(Stage.QUEUED).record(next.releasedNanos - next.submittedNanos);
+            write(next, "submitted");
+        }
+
+        // Idle players' tags are behind the clock and no longer matter
+        if (queued.isEmpty()) {
+            lastFinishTag.values().removeIf(tag -> tag <= virtualTime);
+        }
+    }
+
+    /**
+     * Estimated seconds until a request at the given queue position is answered:
+     * at least the typical round trip, longer if the queue drains slower than that.
+     */
+    private long estimateWaitSeconds(int position) {
+        if (avgLatencyNanos == 0) return -1;
+        double eta = Math.max(avgLatencyNanos, position * avgGapNanos);
+        return Math.round(eta / 1_000_000_000.0);
+    }
+
+    /**
+     * Retry released requests past their deadline once; drop them on the second timeout.
+     */
+    private void checkDeadlines(long now) {
+        var it = inFlight.values().iterator();
+        while (it.hasNext()) {
+            InFlight entry = it.next();
+            if (!entry.released || now < entry.deadlineNanos) continue;
+            timeouts++;
+
+            if (!entry.retried) {
+                entry.retried = true;
+                entry.releasedNanos = now;
+                entry.pickedUpNanos = 0;
+                entry.deadlineNanos = now + timeoutNanos();
+                retries++;
+                notifyPlayer(entry, plugin.getConfig().getString("requests.fallback-message",
+                        "MineAI is lost in thought... your prayer has been repeated."));
+                write(entry, "retried");
+            } else {
+                it.remove();
+                forget(entry);
+                closed.put(entry.id, now);
+                notifyPlayer(entry, plugin.getConfig().getString("requests.give-up-message",
+                        "MineAI did not answer. Perhaps ask again later."));
+                logger.warning("Request " + entry.id + " from " + entry.playerName + " was never answered.");
+            }
+        }
+    }
+
+    /**
+     * Off the main thread: note released requests whose file the backend has taken.
+     */
+    private void checkPickups() {
+        List<String> waiting = new ArrayList<>();
+        synchronized (this) {
+            for (InFlight entry : inFlight.values()) {
+                if (entry.released && entry.pickedUpNanos == 0) waiting.add(entry.id);
+            }
+        }
+        if (waiting.isEmpty()) return;
+
+        List<String> taken = new ArrayList<>();
+        for (String id : waiting) {
+            if (!Files.exists(requestDir.resolve(id + ".json"))) taken.add(id);
+        }
+
+        long now = System.nanoTime();
+        synchronized (this) {
+            for (String id : taken) {
+                InFlight entry = inFlight.get(id);
+                if (entry == null || !entry.released || entry.pickedUpNanos != 0) continue;
+                entry.pickedUpNanos = now;
+                histograms.get(Stage.PICKED_UP).record(now - entry.releasedNanos);
+            }
+        }
+    }
+
+    private long duplicateWindowNanos() {
+        return Math.max(0, plugin.getConfig().getLong("requests.duplicate-window-seconds", 60)) * 1_000_000_000L;
+    }
+
+    private long timeoutNanos() {
+        return Math.max(10, plugin.getConfig().getLong("requests.timeout-seconds", 90)) * 1_000_000_000L;
+    }
+
+    private long keepNanos() {
+        return Math.max(0, plugin.getConfig().getLong("requests.keep-minutes", 10)) * 60_000_000_000L;
+    }
+
+    private void notifyPlayer(InFlight entry, String message) {
+        notifyPlayer(entry.playerId, message);
+    }
+
+    private void notifyPlayer(UUID playerId, String message) {
+        Player player = Bukkit.getPlayer(playerId);
+        if (player != null && message != null && !message.isEmpty()) {
+            player.sendMessage(Component.text("⚡ " + message)
+                    .color(NamedTextColor.GRAY)
+                    .decorate(TextDecoration.ITALIC));
+        }
+    }
+
+    private void forget(InFlight entry) {
+        latestByPlayer.remove(entry.playerId, entry);
+        recent.remove(entry);
+        if (entry.released) {
+            released--;
+        } else {
+            queued.remove(entry);
+        }
+    }
+
+    /**
+     * Write a request file on the request I/O thread.
+     */
+    private void write(InFlight entry, String verb) {
+        List<Exchange> history = plugin.getConversationMemory().history(entry.playerId);
+        AiRequest request = entry.toRequest(history.isEmpty() ? null : history);
+        io.execute(() -> {
             try {
-                writeRequestFile(requestId, request);
-                logger.info("Request submitted: " + requestId + " from " + player.getName());
+                writeRequestFile(request.id(), request);
+                logger.info("Request " + verb + ": " + request.id() + " from " + request.player());
             } catch (IOException e) {
-                logger.severe("Failed to write request " + requestId + ": " + e.getMessage());
+                logger.severe("Failed to write request " + request.id() + ": " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * On the request I/O thread, after any pending write of it: withdraw the request file
+     * if the backend has not taken it yet, and leave a tombstone for the backend in case it has.
+     */
+    private void tombstone(InFlight entry) {
+        RequestCancellation cancellation = new RequestCancellation(entry.id, entry.playerName, "quit",
+                System.currentTimeMillis() / 1000L);
+        io.execute(() -> {
+            try {
+                Files.deleteIfExists(requestDir.resolve(cancellation.id() + ".json"));
+                Path targetFile = requestDir.resolve(cancellation.id() + ".cancelled");
+                Path tempFile = requestDir.resolve(cancellation.id() + ".cancelled.tmp");
+                Files.writeString(tempFile, GSON.toJson(cancellation), StandardCharsets.UTF_8);
+                Files.move(tempFile, targetFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                logger.info("Request cancelled: " + cancellation.id() + " from " + cancellation.player());
+            } catch (IOException e) {
+                logger.warning("Failed to cancel request " + cancellation.id() + ": " + e.getMessage());
             }
         });
     }
@@ -107,6 +739,74 @@ public final class RequestManager {
         return clean;
     }
 
+    // ── Queue persistence ──
+
+    private void saveQueue() {
+        List<Saved> snapshot = new ArrayList<>();
+        synchronized (this) {
+            for (InFlight entry : inFlight.values()) {
+                snapshot.add(new Saved(entry.id, entry.playerId, entry.playerName, entry.rank, entry.message,
+                        entry.timestamp, entry.count, List.copyOf(entry.askers), entry.released));
+            }
+        }
+        try {
+            if (snapshot.isEmpty()) {
+                Files.deleteIfExists(queueFile);
+                return;
+            }
+            Path temp = queueFile.resolveSibling("request-queue.json.tmp");
+            Files.writeString(temp, GSON.toJson(snapshot), StandardCharsets.UTF_8);
+            Files.move(temp, queueFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            logger.info("Saved " + snapshot.size() + " unanswered requests.");
+        } catch (IOException e) {
+            logger.warning("Failed to save request-queue.json: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Put saved requests back in flight. Queued ones rejoin the fair queue (released on the
+     * first tick); released ones get a fresh deadline, so a lost file is retried as usual.
+     * The file is deleted once read, so a crash later can't replay answered requests.
+     */
+    private synchronized void loadQueue() {
+        if (!Files.exists(queueFile)) return;
+        try {
+            List<Saved> saved = GSON.fromJson(Files.readString(queueFile, StandardCharsets.UTF_8),
+                    new TypeToken<List<Saved>>() {}.getType());
+            Files.deleteIfExists(queueFile);
+            if (saved == null) return;
+
+            long now = System.nanoTime();
+            for (Saved request : saved) {
+                if (request.id() == null || request.playerId() == null || request.message() == null) continue;
+                if (inFlight.size() >= MAX_IN_FLIGHT) break;
+                double start = Math.max(virtualTime, lastFinishTag.getOrDefault(request.playerId(), 0.0));
+                double finish = start + 1.0 / Rank.fromString(request.rank()).weight();
+                lastFinishTag.put(request.playerId(), finish);
+
+                InFlight entry = new InFlight(request.id(), request.playerId(), request.playerName(), request.rank(), request.message(), finish,
+                        request.timestamp());
+                entry.count = Math.max(1, request.count());
+                if (request.askers() != null) entry.askers.addAll(request.askers());
+                inFlight.put(entry.id, entry);
+                latestByPlayer.put(entry.playerId, entry);
+                if (request.released()) {
+                    entry.released = true;
+                    entry.releasedNanos = now;
+                    entry.deadlineNanos = now + timeoutNanos();
+                    released++;
+                } else {
+                    queued.add(entry);
+                }
+            }
+            if (!inFlight.isEmpty()) {
+                logger.info("Restored " + inFlight.size() + " unanswered requests (" + queued.size() + " queued).");
+            }
+        } catch (IOException | JsonParseException e) {
+            logger.warning("Failed to load request-queue.json: " + e.getMessage());
+        }
+    }
+
     private void ensureDirectories() {
         try {
             Files.createDirectories(requestDir);
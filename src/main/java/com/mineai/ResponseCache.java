@@ -0,0 +1,315 @@
+package com.mineai;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import com.mineai.RankManager.Rank;
+import com.mineai.model.AiRequest;
+import com.mineai.model.AiResponse;
+import com.mineai.model.TimelineStep;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Bounded cache of AI answers for repeated requests, keyed by normalized message + rank.
+ *
+ * Answers are stored as templates with the requester's name replaced by {player}, so the
+ * same question from another player of the same rank is answered locally in the same
+ * tick. Answers whose commands target any other known player, or use a verb listed in
+ * {@code cache.deny-commands} (rank changes by default), are never cached, since replaying
+ * them would act on someone else. Entries are evicted least-recently-used beyond
+ * {@code cache.max-entries} and
+ * ignored once older than {@code cache.ttl-minutes}. With probability
+ * {@code cache.randomness} a hit is passed to the AI anyway, refreshing the entry so the
+ * god doesn't feel canned. The cache is saved to response-cache.json periodically and on
+ * shutdown. Thread-safe.
+ */
+public final class ResponseCache {
+
+    private static final Gson GSON = new Gson();
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    /** Anything shaped like a Minecraft player name. */
+    private static final Pattern NAME_TOKEN = Pattern.compile("\\b[A-Za-z0-9_]{3,16}\\b");
+    private static final String PLACEHOLDER = "{player}";
+
+    /**
+     * A cached answer with the requester's name parameterized.
+     */
+    private record Template(String key, String response, List<String> commands,
+                            List<TimelineStep> timeline, long storedAt) {}
+
+    private final MineAI plugin;
+    private final Logger logger;
+    private final Path file;
+    private final LinkedHashMap<String, Template> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private boolean dirty;
+    private long hits;
+    private long misses;
+    private long bypassed;
+    private BukkitTask saveTask;
+
+    public ResponseCache(MineAI plugin) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.file = plugin.getDataFolder().toPath().resolve("response-cache.json");
+        load();
+    }
+
+    /**
+     * Start saving the cache every five minutes when it has changed.
+     */
+    public void start() {
+        if (saveTask != null) return;
+        saveTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::saveIfDirty, 6000L, 6000L);
+    }
+
+    /**
+     * Stop the save timer and write the cache (used during shutdown).
+     */
+    public void stop() {
+        if (saveTask != null) {
+            saveTask.cancel();
+            saveTask = null;
+        }
+        saveIfDirty();
+    }
+
+    /**
+     * Answer a request from the cache if a fresh entry exists. MUST be called on the main thread.
+     *
+     * @return true if answered
+     */
+    public boolean tryAnswer(Player player, String message) {
+        FileConfiguration config = plugin.getConfig();
+        if (!config.getBoolean("cache.enabled", true)) return false;
+
+        Rank rank = plugin.getRankManager().getRank(player.getUniqueId());
+        String key = key(message, rank);
+        Template template;
+        synchronized (this) {
+            template = entries.get(key);
+            if (template != null && System.currentTimeMillis() - template.storedAt() > ttlMillis()) {
+                entries.remove(key);
+                dirty = true;
+                template = null;
+            }
+            if (template == null) {
+                misses++;
+                return false;
+            }
+            if (ThreadLocalRandom.current().nextDouble() < config.getDouble("cache.randomness", 0.2)) {
+                bypassed++;
+                return false;
+            }
+            hits++;
+        }
+
+        String name = player.getName();
+        List<String> commands = new ArrayList<>();
+        for (String command : template.commands()) {
+            commands.add(command.replace(PLACEHOLDER, name));
+        }
+        List<TimelineStep> timeline = null;
+        if (template.timeline() != null) {
+            timeline = new ArrayList<>();
+            for (TimelineStep step : template.timeline()) {
+                timeline.add(new TimelineStep(step.at(), step.command().replace(PLACEHOLDER, name), step.when()));
+            }
+        }
+        String response = template.response() != null ? template.response().replace(PLACEHOLDER, name) : null;
+
+        plugin.getResponseWatcher().executeResponse(
+                new AiResponse(null, name, response, commands, timeline, System.currentTimeMillis() / 1000L));
+        plugin.getConversationMemory().record(player.getUniqueId(), message, response);
+        logger.info("Answered /ai from " + name + " from the response cache.");
+        return true;
+    }
+
+    /**
+     * Remember the AI's answer to a request as a template for the next identical request.
+     */
+    public void store(AiRequest request, AiResponse response) {
+        if (!plugin.getConfig().getBoolean("cache.enabled", true)) return;
+        if (request.message() == null || request.player() == null) return;
+        if (!replayable(request.player(), response)) return;
+
+        Pattern name = Pattern.compile("\\b" + Pattern.quote(request.player()) + "\\b", Pattern.CASE_INSENSITIVE);
+        List<String> commands = new ArrayList<>();
+        if (response.commands() != null) {
+            for (String command : response.commands()) {
+                commands.add(parameterize(name, command));
+            }
+        }
+        List<TimelineStep> timeline = null;
+        if (response.timeline() != null) {
+            timeline = new ArrayList<>();
+            for (TimelineStep step : response.timeline()) {
+                timeline.add(new TimelineStep(step.at(), parameterize(name, step.command()), step.when()));
+            }
+        }
+
+        String key = key(request.message(), Rank.fromString(request.rank()));
+        Template template = new Template(key, parameterize(name, response.response()),
+                List.copyOf(commands), timeline, System.currentTimeMillis());
+
+        synchronized (this) {
+            entries.put(key, template);
+            int max = Math.max(1, plugin.getConfig().getInt("cache.max-entries", 256));
+            var it = entries.keySet().iterator();
+            while (entries.size() > max && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+            dirty = true;
+        }
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    /**
+     * Hits deliberately passed to the AI (the randomness factor).
+     */
+    public synchronized long bypassed() {
+        return bypassed;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Fraction of lookups answered from the cache.
+     */
+    public synchronized double hitRate() {
+        long lookups = hits + misses + bypassed;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    // ── Keys and templates ──
+
+    /**
+     * Normalize a message (case, punctuation, whitespace) and combine it with the rank.
+     */
+    static String key(String message, Rank rank) {
+        String normalized = NON_WORD.matcher(message.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+        return rank.name() + "|" + normalized;
+    }
+
+    /**
+     * Whether an answer may be replayed for another player: none of its commands (immediate
+     * or timeline) uses a denied verb or names a known player other than the requester.
+     */
+    private boolean replayable(String requester, AiResponse response) {
+        List<String> commands = new ArrayList<>();
+        if (response.commands() != null) commands.addAll(response.commands());
+        if (response.timeline() != null) {
+            for (TimelineStep step : response.timeline()) commands.add(step.command());
+        }
+        if (commands.isEmpty()) return true;
+
+        Set<String> denied = new HashSet<>();
+        for (String verb : plugin.getConfig().getStringList("cache.deny-commands")) {
+            denied.add(verb.toLowerCase(Locale.ROOT));
+        }
+        NameIndex names = plugin.getNameIndex();
+        UUID requesterId = names.lookup(requester);
+        for (String command : commands) {
+            if (command == null || command.isBlank()) continue;
+            String[] tokens = WHITESPACE.split(command.trim());
+            if (denied.contains(verb(tokens[0]))) return false;
+            if (tokens.length > 1 && verb(tokens[0]).equals("mineai") && denied.contains(verb(tokens[1]))) return false;
+
+            Matcher token = NAME_TOKEN.matcher(command);
+            while (token.find()) {
+                if (token.group().equalsIgnoreCase(requester)) continue;
+                UUID playerId = names.lookup(token.group());
+                if (playerId != null && !playerId.equals(requesterId)) return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A command word without its slash or namespace, lower case ("/minecraft:op" → "op").
+     */
+    private static String verb(String word) {
+        String verb = word.startsWith("/") ? word.substring(1) : word;
+        int colon = verb.indexOf(':');
+        return (colon >= 0 ? verb.substring(colon + 1) : verb).toLowerCase(Locale.ROOT);
+    }
+
+    private static String parameterize(Pattern name, String text) {
+        if (text == null) return null;
+        return name.matcher(text).replaceAll(Matcher.quoteReplacement(PLACEHOLDER));
+    }
+
+    private long ttlMillis() {
+        return Math.max(1, plugin.getConfig().getLong("cache.ttl-minutes", 30)) * 60_000L;
+    }
+
+    // ── Persistence ──
+
+    private void load() {
+        if (!Files.exists(file)) return;
+        try {
+            List<Template> saved = GSON.fromJson(Files.readString(file, StandardCharsets.UTF_8),
+                    new TypeToken<List<Template>>() {}.getType());
+            if (saved == null) return;
+            long cutoff = System.currentTimeMillis() - ttlMillis();
+            for (Template template : saved) {
+                if (template.key() != null && template.storedAt() >= cutoff) {
+                    entries.put(template.key(), template);
+                }
+            }
+            logger.info("Loaded " + entries.size() + " cached responses.");
+        } catch (IOException | JsonParseException e) {
+            logger.warning("Failed to load response-cache.json: " + e.getMessage());
+        }
+    }
+
+    private void saveIfDirty() {
+        List<Template> snapshot;
+        synchronized (this) {
+            if (!dirty) return;
+            dirty = false;
+            snapshot = new ArrayList<>(entries.values()); // least recently used first
+        }
+
+        Path temp = file.resolveSibling("response-cache.json.tmp");
+        try {
+            Files.writeString(temp, GSON.toJson(snapshot), StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            synchronized (this) {
+                dirty = true;
+            }
+            logger.warning("Failed to save response-cache.json: " + e.getMessage());
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.mineai;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonSyntaxException;
+import com.mineai.model.AiRequest;
 import com.mineai.model.AiResponse;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
@@ -12,6 +13,8 @@ import org.bukkit.entity.Player;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
 
 /**
@@ -31,6 +34,7 @@ public final class ResponseWatcher {
     private final MineAI plugin;
     private final Logger logger;
     private final Path responseDir;
+    private final AtomicInteger scheduled = new AtomicInteger();
     private volatile boolean running;
     private Thread watcherThread;
 
@@ -73,6 +77,20 @@ public final class ResponseWatcher {
         logger.info("Response watcher stopped.");
     }
 
+    /**
+     * Responses read but not yet executed on the main thread, plus response files not yet read.
+     * Lists the responses directory; call off the main thread.
+     */
+    public int pendingCount() {
+        int files = 0;
+        try (var stream = Files.list(responseDir)) {
+            files = (int) stream.filter(p -> p.toString().endsWith(".json")).count();
+        } catch (IOException e) {
+            // Directory missing or unreadable; report only what is scheduled
+        }
+        return scheduled.get() + files;
+    }
+
     /**
      * Process any response files that existed before the watcher started.
      */
@@ -97,7 +115,7 @@ public final class ResponseWatcher {
             while (running) {
                 WatchKey key;
                 try {
-                    key = watchService.poll(java.time.Duration.ofSeconds(2));
+                    key = watchService.poll(2, java.util.concurrent.TimeUnit.SECONDS);
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
                     break;
@@ -152,8 +170,51 @@ public final class ResponseWatcher {
                 return;
             }
 
+            // Correlate with the request: explicit requestId, else the file name
+            long answeredNanos = System.nanoTime();
+            boolean explicitId = response.requestId() != null && !response.requestId().isBlank();
+            String fileName = file.getFileName().toString();
+            String requestId = explicitId
+                    ? response.requestId()
+                    : fileName.substring(0, fileName.length() - ".json".length());
+
+            // The final answer supersedes any partial text streamed for this request
+            plugin.getStreamTailer().finish(requestId);
+
+            // The requester left and the request was withdrawn; don't act on a stale answer
+            if (plugin.getRequestManager().isCancelled(requestId)) {
+                Files.deleteIfExists(file);
+                logger.info("Dropped late response to cancelled request " + requestId);
+                return;
+            }
+
             // Execute on the main server thread
-            Bukkit.getScheduler().runTask(plugin, () -> executeResponse(response));
+            scheduled.incrementAndGet();
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                scheduled.decrementAndGet();
+                // Claim the request first: a second answer (e.g. to the retried request) or one
+                // arriving after we gave up must not run again
+                RequestManager requests = plugin.getRequestManager();
+                AiRequest request = requests.complete(requestId, response.player(), explicitId, answeredNanos);
+                if (request == null && (explicitId || requests.isClosed(requestId))) {
+                    logger.info("Dropped response to unknown or already answered request " + requestId);
+                    return;
+                }
+
+                // Hold answers for known players who are offline until they rejoin
+                UUID absent = plugin.getNameIndex().findOnline(response.player()) == null
+                        ? plugin.getNameIndex().lookup(response.player()) : null;
+                if (absent != null) {
+                    plugin.getDeliveryQueue().park(absent, response);
+                } else {
+                    executeResponse(response);
+                }
+                if (request != null) {
+                    plugin.getResponseCache().store(request, response);
+                    plugin.getConversationMemory().record(
+                            plugin.getNameIndex().lookup(request.player()), request.message(), response.response());
+                }
+            });
 
             // Delete the processed file
             Files.deleteIfExists(file);
@@ -171,7 +232,7 @@ public final class ResponseWatcher {
      * Execute a parsed AI response: broadcast the message and run commands.
      * MUST be called on the main thread.
      */
-    private void executeResponse(AiResponse response) {
+    void executeResponse(AiResponse response) {
         // Broadcast the AI's message
         if (response.response() != null && !response.response().isEmpty()) {
             Component message = AI_PREFIX.append(
@@ -184,7 +245,7 @@ public final class ResponseWatcher {
             Bukkit.broadcast(message);
 
             // Also target the specific player with a personal indicator
-            Player target = Bukkit.getPlayerExact(response.player());
+            Player target = plugin.getNameIndex().findOnline(response.player());
             if (target != null) {
                 target.sendMessage(Component.text("  ↳ (directed at you)")
                         .color(NamedTextColor.DARK_GRAY)
@@ -195,21 +256,34 @@ public final class ResponseWatcher {
         // Execute commands
         if (response.commands() != null) {
             for (String command : response.commands()) {
-                if (command == null || command.isBlank()) continue;
+                dispatchCommand(command);
+            }
+        }
 
-                // Strip leading slash if present
-                String cmd = command.strip();
-                if (cmd.startsWith("/")) {
-                    cmd = cmd.substring(1);
-                }
+        // Queue choreographed steps for later ticks
+        if (response.timeline() != null && !response.timeline().isEmpty()) {
+            plugin.getTimelineScheduler().schedule(response.player(), response.timeline());
+        }
+    }
 
-                try {
-                    logger.info("Executing AI command: " + cmd);
-                    Bukkit.dispatchCommand(Bukkit.getConsoleSender(), cmd);
-                } catch (Exception e) {
-                    logger.warning("Failed to execute command '" + cmd + "': " + e.getMessage());
-                }
-            }
+    /**
+     * Run a single AI-issued command as the console.
+     * MUST be called on the main thread.
+     */
+    void dispatchCommand(String command) {
+        if (command == null || command.isBlank()) return;
+
+        // Strip leading slash if present
+        String cmd = command.strip();
+        if (cmd.startsWith("/")) {
+            cmd = cmd.substring(1);
+        }
+
+        try {
+            logger.info("Executing AI command: " + cmd);
+            Bukkit.dispatchCommand(Bukkit.getConsoleSender(), cmd);
+        } catch (Exception e) {
+            logger.warning("Failed to execute command '" + cmd + "': " + e.getMessage());
         }
     }
 
@@ -0,0 +1,137 @@
+package com.mineai;
+
+import com.google.gson.Gson;
+import com.mineai.model.ServerStatus;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/**
+ * Publishes server health to status.json so the AI backend can throttle itself: TPS, MSPT,
+ * request and response backlogs, live AI-spawned entities and a degradation {@link Tier}.
+ *
+ * Every {@code status.interval-ticks} the main thread reads the in-memory figures; counting
+ * unread response files and writing the file (temp file + atomic rename) happen on a
+ * background writer. If the previous write is still running the sample is skipped rather
+ * than queued, so a slow disk never builds a backlog.
+ */
+public final class StatusPublisher {
+
+    private static final Gson GSON = new Gson();
+
+    /**
+     * How hard the backend should back off, from "act freely" to "answer with words only".
+     */
+    public enum Tier { NORMAL, STRAINED, DEGRADED, CRITICAL }
+
+    private final MineAI plugin;
+    private final Logger logger;
+    private final Path file;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "MineAI-Status");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicBoolean writing = new AtomicBoolean();
+    private volatile Tier tier = Tier.NORMAL;
+    private BukkitTask task;
+
+    public StatusPublisher(MineAI plugin) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.file = plugin.getDataFolder().toPath().resolve("status.json");
+    }
+
+    public void start() {
+        if (task != null) return;
+        long interval = Math.max(2, plugin.getConfig().getLong("status.interval-ticks", 5));
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::sample, interval, interval);
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        writer.shutdown();
+        try {
+            writer.awaitTermination(3, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The tier in the most recently published status.
+     */
+    public Tier tier() {
+        return tier;
+    }
+
+    /**
+     * Main thread: read the cheap in-memory figures and hand off to the writer.
+     */
+    private void sample() {
+        if (!writing.compareAndSet(false, true)) return;
+
+        double tps = Math.min(20.0, Bukkit.getTPS()[0]);
+        double mspt = Bukkit.getAverageTickTime();
+        RequestManager requests = plugin.getRequestManager();
+        int pendingRequests = requests.inFlightCount();
+        int queued = requests.queuedCount();
+        int released = requests.releasedCount();
+        double stretch = requests.backlogStretch();
+        int deferred = plugin.getDeliveryQueue().size();
+        int entities = plugin.getPowerProfiler().liveSpawnedCount();
+        int tripped = plugin.getPowerProfiler().trippedCount();
+        long timestamp = System.currentTimeMillis() / 1000L;
+
+        writer.execute(() -> {
+            try {
+                int pendingResponses = plugin.getResponseWatcher().pendingCount();
+                Tier current = classify(tps, mspt, stretch, pendingResponses, entities, tripped);
+                tier = current;
+                write(new ServerStatus(timestamp, round(tps), round(mspt), pendingRequests, queued, released,
+                        pendingResponses, deferred, entities, tripped, current.name().toLowerCase(Locale.ROOT)));
+            } catch (IOException e) {
+                logger.warning("Failed to write status.json: " + e.getMessage());
+            } finally {
+                writing.set(false);
+            }
+        });
+    }
+
+    /**
+     * Worst condition wins: tick time first, then backlogs, AI entities and open breakers.
+     */
+    private static Tier classify(double tps, double mspt, double stretch, int pendingResponses,
+                                 int entities, int tripped) {
+        if (mspt >= 80 || tps < 10) return Tier.CRITICAL;
+        if (mspt >= 50 || stretch >= 3.0 || pendingResponses >= 50 || entities >= 200) return Tier.DEGRADED;
+        if (mspt >= 40 || stretch >= 2.0 || pendingResponses >= 10 || entities >= 100 || tripped > 0) {
+            return Tier.STRAINED;
+        }
+        return Tier.NORMAL;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private void write(ServerStatus status) throws IOException {
+        Path temp = file.resolveSibling("status.json.tmp");
+        Files.writeString(temp, GSON.toJson(status), StandardCharsets.UTF_8);
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
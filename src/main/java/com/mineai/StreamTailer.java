@@ -0,0 +1,195 @@
+package com.mineai;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * Shows an AI answer to its requester while the backend is still writing it.
+ *
+ * The backend appends newline-terminated text chunks to {@code streams/<requestId>.stream}.
+ * Every POLL_TICKS an async task reads only the bytes added since its last read (one
+ * positioned channel read per grown file) and shows the tail of the text so far in the
+ * requester's action bar. The final answer is still the normal response file; when it is
+ * processed, {@link #finish} forgets the stream and deletes its file. Streams that stop
+ * growing for twice the request timeout are discarded.
+ */
+public final class StreamTailer {
+
+    private static final long POLL_TICKS = 4L;
+    /** Characters of streamed text that fit comfortably in the action bar. */
+    private static final int ACTION_BAR_CHARS = 80;
+    private static final int READ_CHUNK = 8192;
+    /** Streamed text kept per request; only the end is ever shown. */
+    private static final int MAX_TEXT = 1024;
+
+    private static final class Tail {
+        long offset;
+        long lastGrowthNanos = System.nanoTime();
+        final ByteArrayOutputStream partialLine = new ByteArrayOutputStream();
+        final StringBuilder text = new StringBuilder();
+    }
+
+    private final MineAI plugin;
+    private final Logger logger;
+    private final Path streamDir;
+    private final Map<String, Tail> tails = new HashMap<>();
+    private final Set<String> finished = new HashSet<>();
+    private BukkitTask pollTask;
+
+    public StreamTailer(MineAI plugin) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.streamDir = plugin.getDataFolder().toPath().resolve("streams");
+        try {
+            Files.createDirectories(streamDir);
+        } catch (IOException e) {
+            logger.severe("Failed to create streams directory: " + e.getMessage());
+        }
+    }
+
+    public void start() {
+        if (pollTask != null) return;
+        pollTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::poll, POLL_TICKS, POLL_TICKS);
+    }
+
+    public void stop() {
+        if (pollTask != null) {
+            pollTask.cancel();
+            pollTask = null;
+        }
+    }
+
+    /**
+     * The final response for a request has arrived: stop tailing and remove its stream.
+     */
+    public synchronized void finish(String requestId) {
+        tails.remove(requestId);
+        finished.add(requestId); // in case a late poll still lists the file
+        try {
+            Files.deleteIfExists(streamDir.resolve(requestId + ".stream"));
+        } catch (IOException e) {
+            logger.warning("Failed to delete stream for " + requestId + ": " + e.getMessage());
+        }
+    }
+
+    public synchronized int activeCount() {
+        return tails.size();
+    }
+
+    /**
+     * Off the main thread: read what each stream file gained since the last poll.
+     */
+    private synchronized void poll() {
+        long now = System.nanoTime();
+        long staleNanos = 2 * Math.max(10, plugin.getConfig().getLong("requests.timeout-seconds", 90)) * 1_000_000_000L;
+        Set<String> seen = new HashSet<>();
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(streamDir, "*.stream")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String requestId = name.substring(0, name.length() - ".stream".length());
+                seen.add(requestId);
+                if (finished.contains(requestId)) {
+                    Files.deleteIfExists(file);
+                    continue;
+                }
+
+                Tail tail = tails.computeIfAbsent(requestId, k -> new Tail());
+                if (readNew(file, tail)) {
+                    tail.lastGrowthNanos = now;
+                    show(requestId, tail.text);
+                } else if (now - tail.lastGrowthNanos > staleNanos) {
+                    tails.remove(requestId);
+                    Files.deleteIfExists(file);
+                    logger.info("Discarded stalled stream " + requestId);
+                }
+            }
+        } catch (IOException e) {
+            logger.warning("Failed to scan streams: " + e.getMessage());
+        }
+
+        // Files removed by someone else
+        tails.keySet().retainAll(seen);
+        finished.retainAll(seen);
+    }
+
+    /**
+     * Append complete new lines from the file to the tail's text.
+     *
+     * @return true if any text was added
+     */
+    private boolean readNew(Path file, Tail tail) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < tail.offset) {
+                // Truncated and rewritten; start over
+                tail.offset = 0;
+                tail.partialLine.reset();
+                tail.text.setLength(0);
+            }
+            if (size == tail.offset) return false;
+
+            boolean added = false;
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(READ_CHUNK, size - tail.offset));
+            channel.position(tail.offset);
+            int read;
+            while ((read = channel.read(buffer)) > 0) {
+                tail.offset += read;
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    byte b = buffer.get();
+                    if (b == '\n') {
+                        String chunk = tail.partialLine.toString(StandardCharsets.UTF_8);
+                        tail.partialLine.reset();
+                        if (!chunk.isEmpty()) {
+                            tail.text.append(chunk);
+                            if (tail.text.length() > MAX_TEXT) {
+                                tail.text.delete(0, tail.text.length() - ACTION_BAR_CHARS);
+                            }
+                            added = true;
+                        }
+                    } else {
+                        tail.partialLine.write(b);
+                    }
+                }
+                buffer.clear();
+            }
+            return added;
+        }
+    }
+
+    private void show(String requestId, CharSequence text) {
+        UUID playerId = plugin.getRequestManager().playerFor(requestId);
+        if (playerId == null) return;
+
+        String shown = text.length() <= ACTION_BAR_CHARS
+                ? text.toString()
+                : "…" + text.subSequence(text.length() - ACTION_BAR_CHARS + 1, text.length());
+        Component bar = Component.text("⚡ ").color(NamedTextColor.DARK_RED)
+                .append(Component.text(shown).color(NamedTextColor.GOLD).decorate(TextDecoration.ITALIC));
+        Bukkit.getScheduler().runTask(plugin, () -> {
+            Player player = Bukkit.getPlayer(playerId);
+            if (player != null) player.sendActionBar(bar);
+        });
+    }
+}
@@ -0,0 +1,141 @@
+package com.mineai;
+
+import com.mineai.RankManager.Rank;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Multi-target selectors for power commands.
+ *
+ * Supported forms:
+ *   @all                    — every online player
+ *   @rank:<rank>            — online players holding a rank (aliases as in Rank.fromString)
+ *   @near:<player>:<radius> — players within radius blocks of a player (including them);
+ *                             "spawn" in place of a player uses the main world's spawn point
+ *   @world:<name>           — players in a world; "overworld", "nether", "end" match by environment
+ *
+ * Selectors are resolved on the main thread in a single pass over the candidate players.
+ */
+public final class TargetSelector {
+
+    private static final int MAX_RADIUS = 256;
+
+    private TargetSelector() {}
+
+    /**
+     * Check whether a target argument is a selector rather than a player name.
+     */
+    public static boolean isSelector(String target) {
+        return target != null && target.startsWith("@");
+    }
+
+    /**
+     * Resolve a selector to the matching online players.
+     *
+     * @return matching players, or null if the selector is malformed
+     */
+    public static List<Player> resolve(String selector, RankManager rankManager, NameIndex names) {
+        String[] parts = selector.substring(1).split(":");
+        String kind = parts[0].toLowerCase();
+
+        return switch (kind) {
+            case "all" -> List.copyOf(Bukkit.getOnlinePlayers());
+            case "rank" -> parts.length < 2 ? null : byRank(Rank.lookup(parts[1]), rankManager);
+            case "near" -> parts.length < 3 ? null : near(parts[1], parts[2], names);
+            case "world" -> parts.length < 2 ? null : inWorld(parts[1]);
+            default -> null;
+        };
+    }
+
+    /**
+     * Selector prefixes offered in tab completion.
+     */
+    public static List<String> suggestions() {
+        List<String> out = new ArrayList<>();
+        out.add("@all");
+        for (Rank rank : Rank.values()) {
+            out.add("@rank:" + rank.name().toLowerCase());
+        }
+        out.add("@near:spawn:30");
+        out.add("@world:overworld");
+        out.add("@world:nether");
+        out.add("@world:end");
+        return out;
+    }
+
+    private static List<Player> byRank(Rank rank, RankManager rankManager) {
+        if (rank == null) return null;
+        List<Player> out = new ArrayList<>();
+        for (Player p : Bukkit.getOnlinePlayers()) {
+            if (rankManager.getRank(p.getUniqueId()) == rank) {
+                out.add(p);
+            }
+        }
+        return out;
+    }
+
+    private static List<Player> near(String anchorName, String radiusArg, NameIndex names) {
+        Location center;
+        if (anchorName.equalsIgnoreCase("spawn")) {
+            center = Bukkit.getWorlds().get(0).getSpawnLocation();
+        } else {
+            Player anchor = names.findOnline(anchorName);
+            if (anchor == null) return List.of();
+            center = anchor.getLocation();
+        }
+
+        double radius;
+        try {
+            radius = Math.min(Double.parseDouble(radiusArg), MAX_RADIUS);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+
+        double radiusSq = radius * radius;
+        List<Player> out = new ArrayList<>();
+        for (Player p : center.getWorld().getPlayers()) {
+            if (p.getLocation().distanceSquared(center) <= radiusSq) {
+                out.add(p);
+            }
+        }
+        return out;
+    }
+
+    private static List<Player> inWorld(String name) {
+        World.Environment env = switch (name.toLowerCase()) {
+            case "overworld", "normal" -> World.Environment.NORMAL;
+            case "nether", "the_nether" -> World.Environment.NETHER;
+            case "end", "the_end" -> World.Environment.THE_END;
+            default -> null;
+        };
+
+        List<Player> out = new ArrayList<>();
+        if (env == null) {
+            World world = Bukkit.getWorld(name);
+            if (world != null) out.addAll(world.getPlayers());
+            return out;
+        }
+        for (World world : Bukkit.getWorlds()) {
+            if (world.getEnvironment() == env) {
+                out.addAll(world.getPlayers());
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Human-readable description for broadcasts, e.g. "12 players (@rank:knight)".
+     */
+    public static String describe(String selector, Collection<Player> targets) {
+        if (targets.size() == 1) {
+            return targets.iterator().next().getName();
+        }
+        return targets.size() + " players (" + selector + ")";
+    }
+}
@@ -0,0 +1,121 @@
+package com.mineai;
+
+import com.mineai.model.TimelineStep;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.logging.Logger;
+
+/**
+ * Executes choreographed AI timelines (see {@link TimelineStep}).
+ * A single repeating task drains a tick-ordered queue shared by every active timeline,
+ * so a 20-step sequence costs one queue entry per step instead of one scheduler task each.
+ * All methods MUST be called on the main thread.
+ */
+public final class TimelineScheduler {
+
+    private static final int MAX_OFFSET_TICKS = 6000; // 5 minutes
+    private static final int MAX_STEPS_PER_RESPONSE = 64;
+    private static final int MAX_PENDING_STEPS = 2048;
+
+    private record PendingStep(long dueTick, long seq, String player, TimelineStep step) {}
+
+    private final MineAI plugin;
+    private final Logger logger;
+    private final PriorityQueue<PendingStep> queue = new PriorityQueue<>(
+            Comparator.comparingLong(PendingStep::dueTick).thenComparingLong(PendingStep::seq));
+    private long currentTick;
+    private long nextSeq;
+    private BukkitTask task;
+
+    public TimelineScheduler(MineAI plugin) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+    }
+
+    public void start() {
+        if (task != null) return;
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        queue.clear();
+    }
+
+    /**
+     * Queue a response's timeline. Steps at offset 0 run immediately.
+     */
+    public void schedule(String player, List<TimelineStep> steps) {
+        int accepted = 0;
+        for (TimelineStep step : steps) {
+            if (step == null || step.command() == null || step.command().isBlank()) continue;
+            if (accepted++ >= MAX_STEPS_PER_RESPONSE) {
+                logger.warning("Timeline for " + player + " truncated at " + MAX_STEPS_PER_RESPONSE + " steps.");
+                break;
+            }
+
+            int offset = Math.max(0, Math.min(step.at(), MAX_OFFSET_TICKS));
+            if (offset == 0) {
+                runStep(player, step);
+                continue;
+            }
+            if (queue.size() >= MAX_PENDING_STEPS) {
+                logger.warning("Timeline queue full; dropping step for " + player + ": " + step.command());
+                continue;
+            }
+            queue.add(new PendingStep(currentTick + offset, nextSeq++, player, step));
+        }
+    }
+
+    /**
+     * Number of steps waiting to run across all timelines.
+     */
+    public int pendingSteps() {
+        return queue.size();
+    }
+
+    private void tick() {
+        currentTick++;
+        PendingStep next;
+        while ((next = queue.peek()) != null && next.dueTick() <= currentTick) {
+            queue.poll();
+            runStep(next.player(), next.step());
+        }
+    }
+
+    private void runStep(String playerName, TimelineStep step) {
+        if (!conditionsHold(playerName, step.when())) {
+            logger.info("Skipping timeline step for " + playerName + " (conditions unmet): " + step.command());
+            return;
+        }
+        plugin.getResponseWatcher().dispatchCommand(step.command());
+    }
+
+    private boolean conditionsHold(String playerName, List<String> conditions) {
+        if (conditions == null || conditions.isEmpty()) return true;
+
+        Player target = plugin.getNameIndex().findOnline(playerName);
+        for (String condition : conditions) {
+            boolean holds = switch (condition.toLowerCase()) {
+                case "online" -> target != null;
+                case "offline" -> target == null;
+                case "alive" -> target != null && !target.isDead();
+                case "dead" -> target != null && target.isDead();
+                default -> {
+                    logger.warning("Unknown timeline condition: " + condition);
+                    yield false;
+                }
+            };
+            if (!holds) return false;
+        }
+        return true;
+    }
+}
@@ -1,6 +1,9 @@
 package com.mineai.commands;
 
 import com.mineai.MineAI;
+import com.mineai.LocalResponder;
+import com.mineai.RankManager;
+import com.mineai.RequestManager;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.format.TextDecoration;
@@ -35,8 +38,10 @@ public final class AiCommand implements CommandExecutor {
             return true;
         }
 
-        // Check cooldown
-        long remaining = plugin.getCooldownManager().getRemainingSeconds(player.getUniqueId());
+        // Check cooldown (consumes a token from the player's rank bucket; stretched while backlogged)
+        RankManager.Rank rank = plugin.getRankManager().getRank(player.getUniqueId());
+        double stretch = plugin.getRequestManager().backlogStretch();
+        long remaining = plugin.getCooldownManager().tryAcquire(player.getUniqueId(), rank, stretch);
         if (remaining > 0) {
             player.sendMessage(Component.text("⏳ MineAI is contemplating... wait " + remaining + "s")
                     .color(NamedTextColor.GRAY)
@@ -47,18 +52,61 @@ public final class AiCommand implements CommandExecutor {
         // Join all args into a single message
         String message = String.join(" ", args);
 
+        // Predictable requests are answered on the spot; the rest go to the AI. A forwarded
+        // intent has already replied, so it skips the cache and always reaches the AI.
+        LocalResponder.Result local = plugin.getLocalResponder().tryAnswer(player, message);
+        if (local == LocalResponder.Result.HANDLED) {
+            return true;
+        }
+        if (local == LocalResponder.Result.UNMATCHED && plugin.getResponseCache().tryAnswer(player, message)) {
+            return true;
+        }
+
         // Submit the request
-        plugin.getRequestManager().submitRequest(player, message);
-        plugin.getCooldownManager().setCooldown(player.getUniqueId());
+        RequestManager.Admission admission = plugin.getRequestManager().submitRequest(player, message);
 
         // Feedback to player
-        player.sendMessage(
-                Component.text("⚡ ").color(NamedTextColor.DARK_RED)
-                        .append(Component.text("Your message has been sent to MineAI...")
-                                .color(NamedTextColor.GOLD)
-                                .decorate(TextDecoration.ITALIC))
-        );
+        switch (admission.outcome()) {
+            case ACCEPTED -> player.sendMessage(
+                    Component.text("⚡ ").color(NamedTextColor.DARK_RED)
+                            .append(Component.text("Your message has been sent to MineAI...")
+                                    .color(NamedTextColor.GOLD)
+                                    .decorate(TextDecoration.ITALIC))
+                            .append(etaComponent(admission.etaSeconds()))
+            );
+            case COLLAPSED -> player.sendMessage(
+                    Component.text("⚡ ").color(NamedTextColor.DARK_RED)
+                            .append(Component.text("MineAI is overwhelmed — your earlier message was replaced with this one.")
+                                    .color(NamedTextColor.GOLD)
+                                    .decorate(TextDecoration.ITALIC))
+                            .append(etaComponent(admission.etaSeconds()))
+            );
+            case DUPLICATE -> player.sendMessage(
+                    Component.text("⚡ ").color(NamedTextColor.DARK_RED)
+                            .append(Component.text("MineAI has already heard this prayer. Your voice has been added to it.")
+                                    .color(NamedTextColor.GOLD)
+                                    .decorate(TextDecoration.ITALIC))
+                            .append(etaComponent(admission.etaSeconds()))
+            );
+            case REJECTED -> {
+                // Turned away before reaching the AI; don't charge the player for it
+                plugin.getCooldownManager().refund(player.getUniqueId(), rank, stretch);
+                player.sendMessage(
+                        Component.text("⏳ MineAI is overwhelmed by prayers. Try again later.")
+                                .color(NamedTextColor.GRAY)
+                                .decorate(TextDecoration.ITALIC)
+                                .append(etaComponent(admission.etaSeconds()))
+                );
+            }
+            case EMPTY -> player.sendMessage(Component.text("Usage: /ai <message>")
+                    .color(NamedTextColor.YELLOW));
+        }
 
         return true;
     }
+
+    private static Component etaComponent(long etaSeconds) {
+        if (etaSeconds < 0) return Component.empty();
+        return Component.text(" (~" + etaSeconds + "s)").color(NamedTextColor.DARK_GRAY);
+    }
 }
@@ -1,8 +1,15 @@
 package com.mineai.commands;
 
+import com.mineai.DeliveryQueue;
+import com.mineai.LatencyHistogram;
 import com.mineai.MineAI;
 import com.mineai.MineAIPowers;
+import com.mineai.PowerBenchmark;
+import com.mineai.PowerProfiler;
 import com.mineai.RankManager;
+import com.mineai.RequestManager;
+import com.mineai.ResponseCache;
+import com.mineai.TargetSelector;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import org.bukkit.Bukkit;
@@ -15,6 +22,7 @@ import org.bukkit.entity.Player;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.stream.Stream;
 
 /**
@@ -43,6 +51,10 @@ public final class MineAICommand implements CommandExecutor, TabCompleter {
             "say", "announce", "setrank", "ranks"
     );
 
+    private static final List<String> ADMIN_COMMANDS = List.of(
+            "reload", "bench", "profile", "requests"
+    );
+
     private static final List<String> ALL_COMMANDS;
     static {
         ALL_COMMANDS = new ArrayList<>();
@@ -50,12 +62,9 @@ public final class MineAICommand implements CommandExecutor, TabCompleter {
         ALL_COMMANDS.addAll(BLESS_COMMANDS);
         ALL_COMMANDS.addAll(MOB_COMMANDS);
         ALL_COMMANDS.addAll(SOCIAL_COMMANDS);
+        ALL_COMMANDS.addAll(ADMIN_COMMANDS);
     }
 
-    private static final List<String> KIT_TYPES = List.of(
-            "starter", "warrior", "mage", "archer", "tank", "god"
-    );
-
     private static final List<String> ENCASE_MATERIALS = List.of(
             "lava", "obsidian", "tnt", "ice", "bedrock"
     );
@@ -66,10 +75,13 @@ public final class MineAICommand implements CommandExecutor, TabCompleter {
 
     private final MineAI plugin;
     private final MineAIPowers powers;
+    private final PowerBenchmark benchmark;
 
     public MineAICommand(MineAI plugin) {
         this.plugin = plugin;
         this.powers = new MineAIPowers(plugin);
+        this.benchmark = new PowerBenchmark(plugin, powers);
+        plugin.getServer().getPluginManager().registerEvents(benchmark, plugin);
     }
 
     @Override
@@ -107,9 +119,54 @@ public final class MineAICommand implements CommandExecutor, TabCompleter {
                 powers.executeShowRanks(sender);
                 return true;
             }
+            case "bench" -> {
+                if (!(sender instanceof Player player)) {
+                    sender.sendMessage(Component.text("Benchmarks must be run in-game; you are the test target.")
+                            .color(NamedTextColor.RED));
+                    return true;
+                }
+                if (subArgs.length < 2) {
+                    sender.sendMessage(Component.text("Usage: /mineai bench <power> <iterations> [args...]")
+                            .color(NamedTextColor.RED));
+                    return true;
+                }
+                int iterations;
+                try {
+                    iterations = Integer.parseInt(subArgs[1]);
+                } catch (NumberFormatException e) {
+                    sender.sendMessage(Component.text("Iterations must be a number.").color(NamedTextColor.RED));
+                    return true;
+                }
+                String[] benchArgs = Arrays.copyOfRange(subArgs, 2, subArgs.length);
+                if (!benchmark.run(sender, player, subArgs[0], iterations, benchArgs)) {
+                    sender.sendMessage(Component.text("Unknown power: " + subArgs[0]).color(NamedTextColor.RED));
+                }
+                return true;
+            }
+            case "profile" -> {
+                if (subArgs.length > 0 && subArgs[0].equalsIgnoreCase("reset")) {
+                    plugin.getPowerProfiler().reset();
+                    sender.sendMessage(Component.text("Power profile reset.").color(NamedTextColor.GRAY));
+                    return true;
+                }
+                showProfile(sender);
+                return true;
+            }
+            case "requests" -> {
+                showRequests(sender);
+                return true;
+            }
+            case "reload" -> {
+                plugin.reloadConfig();
+                plugin.getKitRegistry().reloadAsync();
+                plugin.getCooldownManager().reloadAsync();
+                plugin.getLocalResponder().reloadAsync();
+                sender.sendMessage(Component.text("Reloading config.yml, kits.yml, cooldowns.yml and intents.yml...").color(NamedTextColor.GRAY));
+                return true;
+            }
             case "setrank" -> {
                 if (subArgs.length < 2) {
-                    sender.sendMessage(Component.text("Usage: /mineai setrank <player> <rank>").color(NamedTextColor.RED));
+                    sender.sendMessage(Component.text("Usage: /mineai setrank <player[,player...]|@selector> <rank>").color(NamedTextColor.RED));
                     return true;
                 }
                 powers.executeSetRank(sender, subArgs[0], subArgs[1]);
@@ -125,18 +182,32 @@ public final class MineAICommand implements CommandExecutor, TabCompleter {
         }
 
         String targetName = subArgs[0];
-        Player target = Bukkit.getPlayerExact(targetName);
-
-        if (target == null) {
-            sender.sendMessage(Component.text("Player '" + targetName + "' not found or offline.")
-                    .color(NamedTextColor.RED));
-            return true;
-        }
-
         String[] powerArgs = subArgs.length > 1 ? Arrays.copyOfRange(subArgs, 1, subArgs.length) : new String[0];
+        boolean handled;
 
-        // Dispatch to the powers system
-        boolean handled = powers.executePower(subcommand, target, powerArgs);
+        if (TargetSelector.isSelector(targetName)) {
+            List<Player> targets = TargetSelector.resolve(targetName, plugin.getRankManager(), plugin.getNameIndex());
+            if (targets == null) {
+                sender.sendMessage(Component.text("Invalid selector: " + targetName)
+                        .color(NamedTextColor.RED));
+                return true;
+            }
+            if (targets.isEmpty()) {
+                sender.sendMessage(Component.text("No online players match " + targetName + ".")
+                        .color(NamedTextColor.GRAY));
+                return true;
+            }
+            handled = powers.executePower(subcommand, targets, powerArgs, targetName);
+        } else {
+            Player target = plugin.getNameIndex().findOnline(targetName);
+            if (target == null) {
+                String reason = plugin.getNameIndex().lookup(targetName) != null ? "is offline" : "has never joined";
+                sender.sendMessage(Component.text("Player '" + targetName + "' " + reason + ".")
+                        .color(NamedTextColor.RED));
+                return true;
+            }
+            handled = powers.executePower(subcommand, target, powerArgs);
+        }
 
         if (!handled) {
             sender.sendMessage(Component.text("Unknown command: " + subcommand)
@@ -157,15 +228,27 @@ public final class MineAICommand implements CommandExecutor, TabCompleter {
         if (args.length == 2) {
             String sub = args[0].toLowerCase();
             return switch (sub) {
-                case "say", "announce", "ranks" -> List.of();
-                default -> getOnlinePlayerNames(args[1]);
+                case "say", "announce", "ranks", "reload", "requests" -> List.of();
+                case "profile" -> filterCompletions(List.of("reset"), args[1]);
+                case "setrank" -> args[1].startsWith("@")
+                        ? filterCompletions(TargetSelector.suggestions(), args[1])
+                        : getOnlinePlayerNames(args[1].substring(args[1].lastIndexOf(',') + 1)).stream()
+                                .map(name -> args[1].substring(0, args[1].lastIndexOf(',') + 1) + name)
+                                .toList();
+                case "bench" -> filterCompletions(
+                        Stream.of(WRATH_COMMANDS, BLESS_COMMANDS, MOB_COMMANDS).flatMap(List::stream).toList(),
+                        args[1]);
+                default -> args[1].startsWith("@")
+                        ? filterCompletions(TargetSelector.suggestions(), args[1])
+                        : getOnlinePlayerNames(args[1]);
             };
         }
 
         if (args.length == 3) {
             String sub = args[0].toLowerCase();
             return switch (sub) {
-                case "kit" -> filterCompletions(KIT_TYPES, args[2]);
+                case "kit" -> filterCompletions(
+                        List.copyOf(plugin.getKitRegistry().getKitNames()), args[2]);
                 case "encase" -> filterCompletions(ENCASE_MATERIALS, args[2]);
                 case "army" -> filterCompletions(ARMY_TYPES, args[2]);
                 case "setrank" -> filterCompletions(
@@ -180,6 +263,61 @@ public final class MineAICommand implements CommandExecutor, TabCompleter {
         return List.of();
     }
 
+    private void showRequests(CommandSender sender) {
+        RequestManager requests = plugin.getRequestManager();
+        sender.sendMessage(Component.text("═══ ⚡ AI Requests ⚡ ═══").color(NamedTextColor.GOLD));
+        sender.sendMessage(Component.text(" server tier: "
+                + plugin.getStatusPublisher().tier().name().toLowerCase(Locale.ROOT)).color(NamedTextColor.YELLOW));
+        sender.sendMessage(Component.text(String.format(Locale.ROOT,
+                " in flight %d  (queued %d, with backend %d)  timeouts %d  retries %d",
+                requests.inFlightCount(), requests.queuedCount(), requests.releasedCount(),
+                requests.timeouts(), requests.retries())).color(NamedTextColor.YELLOW));
+        sender.sendMessage(Component.text(String.format(Locale.ROOT,
+                " merged duplicates %d  cancelled on quit %d",
+                requests.duplicates(), requests.cancellations())).color(NamedTextColor.YELLOW));
+        sender.sendMessage(Component.text(String.format(Locale.ROOT,
+                " answered locally %d  (also forwarded %d)",
+                plugin.getLocalResponder().answeredCount(), plugin.getLocalResponder().forwardedCount()))
+                .color(NamedTextColor.YELLOW));
+        DeliveryQueue deferred = plugin.getDeliveryQueue();
+        sender.sendMessage(Component.text(String.format(Locale.ROOT,
+                " awaiting offline players %d  (parked %d, delivered %d, expired %d)",
+                deferred.size(), deferred.parkedCount(), deferred.deliveredCount(), deferred.expiredCount()))
+                .color(NamedTextColor.YELLOW));
+        ResponseCache cache = plugin.getResponseCache();
+        sender.sendMessage(Component.text(String.format(Locale.ROOT,
+                " cache %d entries  hits %d  misses %d  bypassed %d  hit rate %.0f%%",
+                cache.size(), cache.hits(), cache.misses(), cache.bypassed(), cache.hitRate() * 100))
+                .color(NamedTextColor.YELLOW));
+        for (RequestManager.Stage stage : RequestManager.Stage.values()) {
+            LatencyHistogram h = requests.histogram(stage);
+            String line = String.format(Locale.ROOT,
+                    " %-10s n=%-5d p50 %8.0f ms  p95 %8.0f ms  max %8.0f ms",
+                    stage.name().toLowerCase(), h.count(), h.percentileMs(0.5), h.percentileMs(0.95), h.maxMs());
+            sender.sendMessage(Component.text(line).color(NamedTextColor.GRAY));
+        }
+    }
+
+    private void showProfile(CommandSender sender) {
+        List<PowerProfiler.Stats> top = plugin.getPowerProfiler().topOffenders(10);
+        sender.sendMessage(Component.text("═══ ⚡ Power Profile ⚡ ═══").color(NamedTextColor.GOLD));
+        if (top.isEmpty()) {
+            sender.sendMessage(Component.text("No powers have run yet.").color(NamedTextColor.GRAY));
+            return;
+        }
+        for (PowerProfiler.Stats s : top) {
+            String line = String.format(Locale.ROOT,
+                    " %-14s %6.2f ms/s  total %.1f ms  calls %d  ticks %d  max %.2f ms  trips %d",
+                    s.power(), s.rollingMsPerSecond(), s.totalNanos() / 1e6,
+                    s.invocations(), s.followUpTicks(), s.maxNanos() / 1e6, s.trips());
+            sender.sendMessage(Component.text(line)
+                    .color(s.tripped() ? NamedTextColor.RED : NamedTextColor.YELLOW)
+                    .append(s.tripped()
+                            ? Component.text("  [TRIPPED]").color(NamedTextColor.DARK_RED)
+                            : Component.empty()));
+        }
+    }
+
     private List<String> filterCompletions(List<String> options, String input) {
         String lower = input.toLowerCase();
         return options.stream()
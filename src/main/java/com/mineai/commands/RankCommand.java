@@ -12,6 +12,7 @@ import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
 
 import java.util.List;
+import java.util.UUID;
 
 /**
  * Handles /rank [player] — check your own or another player's rank.
@@ -26,27 +27,30 @@ public final class RankCommand implements CommandExecutor, TabCompleter {
 
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
-        Player target;
+        UUID targetId;
+        String targetName;
         if (args.length > 0) {
-            target = Bukkit.getPlayerExact(args[0]);
-            if (target == null) {
-                sender.sendMessage(Component.text("Player '" + args[0] + "' not found.")
+            targetId = plugin.getNameIndex().lookup(args[0]);
+            if (targetId == null) {
+                sender.sendMessage(Component.text("Player '" + args[0] + "' has never joined.")
                         .color(NamedTextColor.RED));
                 return true;
             }
+            targetName = plugin.getNameIndex().nameOf(targetId);
         } else if (sender instanceof Player player) {
-            target = player;
+            targetId = player.getUniqueId();
+            targetName = player.getName();
         } else {
             sender.sendMessage(Component.text("Usage: /rank <player>")
                     .color(NamedTextColor.RED));
             return true;
         }
 
-        RankManager.Rank rank = plugin.getRankManager().getRank(target.getUniqueId());
+        RankManager.Rank rank = plugin.getRankManager().getRank(targetId);
         Component display = plugin.getRankManager().getRankDisplayComponent(rank);
 
         sender.sendMessage(
-                Component.text(target.getName() + "'s rank: ").color(NamedTextColor.GOLD)
+                Component.text(targetName + "'s rank: ").color(NamedTextColor.GOLD)
                         .append(display)
         );
 
@@ -2,17 +2,29 @@ package com.mineai.commands;
 
 import com.mineai.MineAI;
 import com.mineai.RankManager;
+import com.mineai.RankManager.Rank;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.format.TextDecoration;
+import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabCompleter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
- * Handles /ranks — display the full rank hierarchy.
+ * Handles /ranks — display the rank hierarchy with member counts.
+ * /ranks <rank> [page] lists a rank's members; /ranks top [page] lists players highest rank first.
  */
-public final class RanksCommand implements CommandExecutor {
+public final class RanksCommand implements CommandExecutor, TabCompleter {
+
+    private static final int PAGE_SIZE = 10;
 
     private final MineAI plugin;
 
@@ -22,6 +34,36 @@ public final class RanksCommand implements CommandExecutor {
 
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        if (args.length == 0) {
+            showHierarchy(sender);
+            return true;
+        }
+
+        int page = 1;
+        if (args.length > 1) {
+            try {
+                page = Math.max(1, Integer.parseInt(args[1]));
+            } catch (NumberFormatException e) {
+                sender.sendMessage(Component.text("Page must be a number.").color(NamedTextColor.RED));
+                return true;
+            }
+        }
+
+        if (args[0].equalsIgnoreCase("top")) {
+            showTop(sender, page);
+            return true;
+        }
+
+        Rank rank = Rank.lookup(args[0]);
+        if (rank == null) {
+            sender.sendMessage(Component.text("Unknown rank: " + args[0]).color(NamedTextColor.RED));
+            return true;
+        }
+        showMembers(sender, rank, page);
+        return true;
+    }
+
+    private void showHierarchy(CommandSender sender) {
         sender.sendMessage(Component.empty());
         sender.sendMessage(
                 Component.text("═══ ").color(NamedTextColor.DARK_GRAY)
@@ -33,16 +75,117 @@ public final class RanksCommand implements CommandExecutor {
         sender.sendMessage(Component.empty());
 
         RankManager rankManager = plugin.getRankManager();
-        for (RankManager.Rank rank : rankManager.getAllRanks()) {
-            sender.sendMessage(rankManager.getRankDisplayComponent(rank));
+        for (Rank rank : rankManager.getAllRanks()) {
+            sender.sendMessage(rankManager.getRankDisplayComponent(rank)
+                    .append(Component.text(" (" + rankManager.countRank(rank) + ")")
+                            .color(NamedTextColor.DARK_GRAY)));
         }
 
         sender.sendMessage(Component.empty());
         sender.sendMessage(Component.text("Ranks are bestowed by MineAI.")
                 .color(NamedTextColor.GRAY)
                 .decorate(TextDecoration.ITALIC));
+        sender.sendMessage(Component.text("/ranks <rank> or /ranks top to list members.")
+                .color(NamedTextColor.DARK_GRAY));
         sender.sendMessage(Component.empty());
+    }
 
-        return true;
+    /**
+     * A rank's members, alphabetically. The page is read from the rank table off the main
+     * thread (keeping only the names up to this page) and sent back on it.
+     */
+    private void showMembers(CommandSender sender, Rank rank, int page) {
+        RankManager rankManager = plugin.getRankManager();
+        int total = rankManager.countRank(rank);
+        int pages = Math.max(1, (total + PAGE_SIZE - 1) / PAGE_SIZE);
+        int shownPage = Math.min(page, pages);
+
+        sender.sendMessage(header(rankManager.prefix(rank).append(
+                Component.text("— " + total + " members").color(NamedTextColor.GRAY)), shownPage, pages));
+
+        int from = (shownPage - 1) * PAGE_SIZE;
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            List<String> names = rankManager.memberNames(rank, from, PAGE_SIZE);
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                for (int i = 0; i < names.size(); i++) {
+                    sender.sendMessage(Component.text("  " + (from + i + 1) + ". " + names.get(i))
+                            .color(NamedTextColor.WHITE));
+                }
+                if (names.isEmpty()) {
+                    sender.sendMessage(Component.text("  Nobody holds this rank.").color(NamedTextColor.GRAY));
+                }
+            });
+        });
+    }
+
+    /**
+     * Leaderboard, highest rank first. Whole ranks before the requested page are skipped
+     * using their O(1) counts; only the ranks on the page are read, off the main thread.
+     */
+    private void showTop(CommandSender sender, int page) {
+        RankManager rankManager = plugin.getRankManager();
+        int total = rankManager.storedPlayers();
+        int pages = Math.max(1, (total + PAGE_SIZE - 1) / PAGE_SIZE);
+        int shownPage = Math.min(page, pages);
+
+        sender.sendMessage(header(Component.text("Top Players").color(NamedTextColor.GOLD), shownPage, pages));
+
+        // Work out which slice of which ranks fills the page
+        Map<Rank, int[]> slices = new LinkedHashMap<>();
+        Rank[] ranks = rankManager.getAllRanks();
+        int skip = (shownPage - 1) * PAGE_SIZE;
+        int wanted = PAGE_SIZE;
+        for (int r = ranks.length - 1; r >= 0 && wanted > 0; r--) {
+            int count = rankManager.countRank(ranks[r]);
+            if (skip >= count) {
+                skip -= count;
+                continue;
+            }
+            int take = Math.min(wanted, count - skip);
+            slices.put(ranks[r], new int[] {skip, take});
+            wanted -= take;
+            skip = 0;
+        }
+
+        int first = (shownPage - 1) * PAGE_SIZE;
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            Map<Rank, List<String>> names = new LinkedHashMap<>();
+            for (Map.Entry<Rank, int[]> slice : slices.entrySet()) {
+                int[] range = slice.getValue();
+                names.put(slice.getKey(), rankManager.memberNames(slice.getKey(), range[0], range[1]));
+            }
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                int position = first;
+                for (Map.Entry<Rank, List<String>> entry : names.entrySet()) {
+                    for (String name : entry.getValue()) {
+                        position++;
+                        sender.sendMessage(Component.text("  " + position + ". ").color(NamedTextColor.GRAY)
+                                .append(rankManager.prefix(entry.getKey()))
+                                .append(Component.text(name).color(NamedTextColor.WHITE)));
+                    }
+                }
+                if (position == first) {
+                    sender.sendMessage(Component.text("  No ranked players yet.").color(NamedTextColor.GRAY));
+                }
+            });
+        });
+    }
+
+    private static Component header(Component title, int page, int pages) {
+        return Component.text("═══ ").color(NamedTextColor.DARK_GRAY)
+                .append(title)
+                .append(Component.text(" (page " + page + "/" + pages + ") ═══").color(NamedTextColor.DARK_GRAY));
+    }
+
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String label, String[] args) {
+        if (args.length == 1) {
+            String input = args[0].toLowerCase();
+            List<String> options = new ArrayList<>();
+            options.add("top");
+            Arrays.stream(Rank.values()).map(r -> r.name().toLowerCase()).forEach(options::add);
+            return options.stream().filter(o -> o.startsWith(input)).toList();
+        }
+        return List.of();
     }
 }
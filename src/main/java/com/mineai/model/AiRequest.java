@@ -1,13 +1,21 @@
 package com.mineai.model;
 
+import java.util.List;
+
 /**
  * Immutable record representing a player's request to the AI.
  * Serialized to JSON and written to the requests directory.
+ * {@code count} is how many times it was asked, including near-duplicates merged into it;
+ * {@code askers} names the other players whose near-duplicates were merged (null if none).
+ * {@code history} holds the player's most recent earlier exchanges, oldest first.
  */
 public record AiRequest(
     String id,
     String player,
     String rank,
     String message,
-    long timestamp
+    long timestamp,
+    int count,
+    List<String> askers,
+    List<Exchange> history
 ) {}
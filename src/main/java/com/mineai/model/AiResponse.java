@@ -5,10 +5,14 @@ import java.util.List;
 /**
  * Immutable record representing the AI's response.
  * Read from JSON files in the responses directory.
+ * {@code commands} run immediately; {@code timeline} steps are spread out over later ticks.
+ * {@code requestId} (optional) names the request being answered; the file name is used if absent.
  */
 public record AiResponse(
+    String requestId,
     String player,
     String response,
     List<String> commands,
+    List<TimelineStep> timeline,
     long timestamp
 ) {}
@@ -0,0 +1,16 @@
+package com.mineai.model;
+
+import java.util.List;
+
+/**
+ * Changes since the previous snapshot or delta ({@code seq - 1}), written to
+ * context/delta-&lt;seq&gt;.json: players who joined or changed, names of players
+ * who left, and deaths since the last capture.
+ */
+public record ContextDelta(
+    long seq,
+    long timestamp,
+    List<PlayerContext> changed,
+    List<String> left,
+    List<GameEvent> deaths
+) {}
@@ -0,0 +1,14 @@
+package com.mineai.model;
+
+import java.util.List;
+
+/**
+ * Full picture of the server for the AI, written to context/snapshot.json.
+ * Apply context/delta-*.json files with a higher {@code seq} to bring it up to date.
+ */
+public record ContextSnapshot(
+    long seq,
+    long timestamp,
+    List<PlayerContext> players,
+    List<GameEvent> recentDeaths
+) {}
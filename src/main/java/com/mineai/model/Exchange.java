@@ -0,0 +1,11 @@
+package com.mineai.model;
+
+/**
+ * One remembered /ai message and MineAI's answer to it (either may be truncated).
+ * Attached oldest first to outgoing requests as {@code history}.
+ */
+public record Exchange(
+    long timestamp,
+    String message,
+    String response
+) {}
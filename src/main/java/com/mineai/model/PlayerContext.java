@@ -0,0 +1,19 @@
+package com.mineai.model;
+
+import java.util.List;
+
+/**
+ * What the AI knows about one online player in a {@link ContextSnapshot}.
+ * Position is coarse (rounded to 16 blocks) and health to half hearts, so an
+ * idle player produces no deltas.
+ */
+public record PlayerContext(
+    String name,
+    String rank,
+    double health,
+    String world,
+    int x,
+    int y,
+    int z,
+    List<String> effects
+) {}
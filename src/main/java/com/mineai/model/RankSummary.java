@@ -0,0 +1,15 @@
+package com.mineai.model;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact rank membership summary exported to ranks-summary.json for the AI.
+ * Counts cover every stored player; member lists skip peasants and are capped per rank.
+ */
+public record RankSummary(
+    long timestamp,
+    int total,
+    Map<String, Integer> counts,
+    Map<String, List<String>> members
+) {}
@@ -0,0 +1,12 @@
+package com.mineai.model;
+
+/**
+ * Tombstone written next to a released request the backend should no longer answer.
+ * Serialized to JSON as {@code requests/<id>.cancelled}.
+ */
+public record RequestCancellation(
+    String id,
+    String player,
+    String reason,
+    long timestamp
+) {}
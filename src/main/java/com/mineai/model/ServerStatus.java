@@ -0,0 +1,20 @@
+package com.mineai.model;
+
+/**
+ * Flow-control signal for the AI backend, written to status.json a few times per second.
+ * Backends should slow down or choose cheaper powers as {@code tier} rises
+ * (normal, strained, degraded, critical).
+ */
+public record ServerStatus(
+    long timestamp,
+    double tps,
+    double mspt,
+    int pendingRequests,
+    int queuedRequests,
+    int releasedRequests,
+    int pendingResponses,
+    int deferredResponses,
+    int aiEntities,
+    int trippedPowers,
+    String tier
+) {}
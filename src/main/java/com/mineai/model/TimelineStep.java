@@ -0,0 +1,14 @@
+package com.mineai.model;
+
+import java.util.List;
+
+/**
+ * One step of a choreographed AI response.
+ * Runs {@code command} {@code at} ticks after the response arrives, but only if every
+ * condition in {@code when} holds for the response's target player ("online", "alive").
+ */
+public record TimelineStep(
+    int at,
+    String command,
+    List<String> when
+) {}
@@ -0,0 +1,112 @@
+package com.mineai;
+
+import com.mineai.CooldownManager.Policy;
+import com.mineai.RankManager.Rank;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CooldownManagerTest {
+
+    private static final long SECOND = 1_000_000_000L;
+    private static final UUID PLAYER = UUID.randomUUID();
+
+    private final long[] now = {0};
+
+    private CooldownManager manager(int uses, long perSeconds) {
+        Policy[] policies = new Policy[Rank.values().length];
+        Arrays.fill(policies, new Policy(uses, perSeconds));
+        return new CooldownManager(policies, () -> now[0]);
+    }
+
+    @Test
+    void burstUpToUsesThenWaitsOneInterval() {
+        CooldownManager cooldowns = manager(3, 30); // one token per 10 s, bursts of 3
+
+        assertEquals(0, cooldowns.tryAcquire(PLAYER, Rank.PEASANT));
+        assertEquals(0, cooldowns.tryAcquire(PLAYER, Rank.PEASANT));
+        assertEquals(0, cooldowns.tryAcquire(PLAYER, Rank.PEASANT));
+        assertEquals(10, cooldowns.tryAcquire(PLAYER, Rank.PEASANT));
+
+        now[0] += 4 * SECOND;
+        assertEquals(6, cooldowns.tryAcquire(PLAYER, Rank.PEASANT));
+        assertEquals(6, cooldowns.getRemainingSeconds(PLAYER, Rank.PEASANT));
+
+        now[0] += 6 * SECOND;
+        assertEquals(0, cooldowns.tryAcquire(PLAYER, Rank.PEASANT));
+    }
+
+    @Test
+    void refusedRequestsDoNotConsumeTokens() {
+        CooldownManager cooldowns = manager(1, 10);
+
+        assertEquals(0, cooldowns.tryAcquire(PLAYER, Rank.PEASANT));
+        for (int i = 0; i < 5; i++) {
+            assertEquals(10, cooldowns.tryAcquire(PLAYER, Rank.PEASANT));
+        }
+
+        now[0] += 10 * SECOND;
+        assertEquals(0, cooldowns.tryAcquire(PLAYER, Rank.PEASANT));
+    }
+
+    @Test
+    void stretchLengthensTheInterval() {
+        CooldownManager cooldowns = manager(1, 10);
+
+        assertEquals(0, cooldowns.tryAcquire(PLAYER, Rank.PEASANT, 2.0));
+        assertEquals(20, cooldowns.tryAcquire(PLAYER, Rank.PEASANT, 2.0));
+    }
+
+    @Test
+    void refundGivesTheTokenBack() {
+        CooldownManager cooldowns = manager(1, 10);
+
+        assertEquals(0, cooldowns.tryAcquire(PLAYER, Rank.PEASANT, 2.0));
+        cooldowns.refund(PLAYER, Rank.PEASANT, 2.0);
+
+        assertEquals(0, cooldowns.tryAcquire(PLAYER, Rank.PEASANT, 2.0));
+    }
+
+    @Test
+    void playersHaveIndependentBuckets() {
+        CooldownManager cooldowns = manager(1, 10);
+
+        assertEquals(0, cooldowns.tryAcquire(PLAYER, Rank.PEASANT));
+        assertEquals(0, cooldowns.tryAcquire(UUID.randomUUID(), Rank.PEASANT));
+        assertEquals(2, cooldowns.size());
+    }
+
+    @Test
+    void timingWheelDropsRefilledBuckets() {
+        CooldownManager cooldowns = manager(1, 5);
+        assertEquals(0, cooldowns.tryAcquire(PLAYER, Rank.PEASANT));
+
+        now[0] += 3 * SECOND;
+        cooldowns.advance();
+        assertEquals(1, cooldowns.size());
+
+        now[0] += 3 * SECOND;
+        cooldowns.advance();
+        assertEquals(0, cooldowns.size());
+        assertEquals(0, cooldowns.getRemainingSeconds(PLAYER, Rank.PEASANT));
+    }
+
+    @Test
+    void bucketsDueBeyondOneRevolutionAreKept() {
+        CooldownManager cooldowns = manager(1, 100); // expires after more than 64 one-second slots
+        assertEquals(0, cooldowns.tryAcquire(PLAYER, Rank.PEASANT));
+
+        for (int i = 0; i < 99; i++) {
+            now[0] += SECOND;
+            cooldowns.advance();
+        }
+        assertEquals(1, cooldowns.size());
+
+        now[0] += 2 * SECOND;
+        cooldowns.advance();
+        assertEquals(0, cooldowns.size());
+    }
+}
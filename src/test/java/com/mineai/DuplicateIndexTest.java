@@ -0,0 +1,100 @@
+package com.mineai;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class DuplicateIndexTest {
+
+    private static long hash(String message) {
+        return DuplicateIndex.fingerprint(message).hash();
+    }
+
+    @Test
+    void fingerprintIgnoresCaseAndPunctuation() {
+        assertEquals(hash("give me diamonds please"), hash("Give me DIAMONDS, please!!"));
+        assertEquals(4, DuplicateIndex.fingerprint("give me diamonds please").words());
+        assertEquals(0, DuplicateIndex.fingerprint("?!").words());
+    }
+
+    @Test
+    void findsMatchesWithinTheDistanceButNotUnrelatedMessages() {
+        DuplicateIndex<String> index = new DuplicateIndex<>();
+        long h = hash("please smite the creeper near my house");
+        index.add(h, "smite", 0);
+
+        assertEquals("smite", index.find(h, 0));
+        assertEquals("smite", index.find(h ^ (1L << 40), 1));
+        assertNull(index.find(h ^ (1L << 40), 0));
+        assertNull(index.find(hash("tell me a story about the nether fortress"), DuplicateIndex.MAX_DISTANCE));
+    }
+
+    @Test
+    void findReturnsTheOldestMatch() {
+        DuplicateIndex<String> index = new DuplicateIndex<>();
+        long h = hash("make it rain diamonds on spawn");
+        index.add(h, "second", 20);
+        index.add(h, "first", 10);
+
+        assertEquals("first", index.find(h, 0));
+    }
+
+    @Test
+    void findSkipsValuesThePredicateRejects() {
+        DuplicateIndex<String> index = new DuplicateIndex<>();
+        long h = hash("make it rain diamonds on spawn");
+        index.add(h, "peasant", 10);
+        index.add(h, "noble", 20);
+
+        assertEquals("noble", index.find(h, 0, value -> value.equals("noble")));
+        assertNull(index.find(h, 0, value -> false));
+    }
+
+    @Test
+    void distanceIsCappedAtMaxDistance() {
+        DuplicateIndex<String> index = new DuplicateIndex<>();
+        long h = hash("make it rain diamonds on spawn");
+        index.add(h, "original", 0);
+
+        long fourBitsOff = h ^ 0b1111L;
+        assertNull(index.find(fourBitsOff, 64));
+        assertEquals("original", index.find(h ^ 0b111L, 64));
+    }
+
+    @Test
+    void expireDropsEntriesAddedBeforeTheCutoff() {
+        DuplicateIndex<String> index = new DuplicateIndex<>();
+        index.add(hash("first message here"), "old", 100);
+        index.add(hash("second message there"), "new", 200);
+
+        index.expire(150);
+
+        assertEquals(1, index.size());
+        assertNull(index.find(hash("first message here"), 0));
+        assertEquals("new", index.find(hash("second message there"), 0));
+    }
+
+    @Test
+    void addingAValueAgainReplacesItsFingerprint() {
+        DuplicateIndex<String> index = new DuplicateIndex<>();
+        index.add(hash("first message here"), "request", 0);
+        index.add(hash("completely different words now"), "request", 10);
+
+        assertEquals(1, index.size());
+        assertNull(index.find(hash("first message here"), 0));
+        assertEquals("request", index.find(hash("completely different words now"), 0));
+    }
+
+    @Test
+    void removeForgetsTheValue() {
+        DuplicateIndex<String> index = new DuplicateIndex<>();
+        long h = hash("make it rain diamonds on spawn");
+        index.add(h, "request", 0);
+
+        index.remove("request");
+
+        assertEquals(0, index.size());
+        assertNull(index.find(h, 0));
+    }
+}
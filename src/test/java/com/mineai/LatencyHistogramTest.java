@@ -0,0 +1,74 @@
+package com.mineai;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LatencyHistogramTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    void emptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.meanMs());
+        assertEquals(0, histogram.maxMs());
+        assertEquals(0, histogram.percentileMs(0.95));
+    }
+
+    @Test
+    void tracksCountMeanAndMax() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(100 * MS);
+        histogram.record(300 * MS);
+
+        assertEquals(2, histogram.count());
+        assertEquals(200, histogram.meanMs(), 1e-9);
+        assertEquals(300, histogram.maxMs(), 1e-9);
+    }
+
+    @Test
+    void percentilesReportTheBucketUpperBound() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 9; i++) {
+            histogram.record(40 * MS);   // ≤ 50 ms bucket
+        }
+        histogram.record(800 * MS);      // ≤ 1 s bucket
+
+        assertEquals(50, histogram.percentileMs(0.5), 1e-9);
+        assertEquals(50, histogram.percentileMs(0.9), 1e-9);
+        assertEquals(800, histogram.percentileMs(0.99), 1e-9); // capped at the observed max
+    }
+
+    @Test
+    void bucketBoundsAreInclusive() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(100 * MS);
+        histogram.record(1_000 * MS);
+
+        assertEquals(100, histogram.percentileMs(0.5), 1e-9);
+        assertEquals(1_000, histogram.percentileMs(1.0), 1e-9);
+    }
+
+    @Test
+    void lastBucketReportsTheObservedMax() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(600_000 * MS);
+
+        assertEquals(600_000, histogram.percentileMs(0.5), 1e-9);
+    }
+
+    @Test
+    void resetClearsEverything() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(250 * MS);
+
+        histogram.reset();
+
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.maxMs());
+        assertEquals(0, histogram.percentileMs(0.5));
+    }
+}